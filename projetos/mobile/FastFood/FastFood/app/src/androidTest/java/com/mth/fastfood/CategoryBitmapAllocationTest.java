@@ -0,0 +1,104 @@
+package com.mth.fastfood;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.content.Intent;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.mth.fastfood.utils.ImageLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/*
+ * Scrolls the longest category up and down and checks that, once the
+ * bitmap pool is warm, binding rows allocates no new bitmaps.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CategoryBitmapAllocationTest {
+    
+    private static final int WARM_UP_PASSES = 2;
+    private static final int PASSES = 3;
+    
+    private ActivityScenario<CategoryActivity> mScenario;
+    private ListScroller mScroller;
+    private ImageLoader mLoader;
+    
+    @Before
+    public void setUp() {
+        Context ctx = ApplicationProvider.getApplicationContext();
+        mLoader = ImageLoader.getInstance(ctx);
+        
+        Intent intent = new Intent(ctx, CategoryActivity.class);
+        intent.putExtra("category_id", ListScroller.longestCategory(ctx));
+        mScenario = ActivityScenario.launch(intent);
+        
+        mScenario.onActivity(new ActivityScenario.ActivityAction<CategoryActivity>() {
+            @Override
+            public void perform(CategoryActivity activity) {
+                mScroller = new ListScroller((RecyclerView) activity.findViewById(R.id.recycler_view));
+            }
+        });
+        
+        mScroller.awaitItems();
+    }
+    
+    @After
+    public void tearDown() {
+        mScenario.close();
+    }
+    
+    @Test
+    public void steadyScrollingAllocatesNoBitmaps() {
+        for (int i = 0; WARM_UP_PASSES > i; i++) {
+            mScroller.pass();
+            mScroller.settle();
+        }
+        
+        long allocations = mLoader.getAllocationCount();
+        int misses = mLoader.getPool().missCount();
+        
+        for (int i = 0; PASSES > i; i++) {
+            mScroller.pass();
+            mScroller.settle();
+        }
+        
+        assertEquals(allocations, mLoader.getAllocationCount());
+        assertEquals(misses, mLoader.getPool().missCount());
+    }
+    
+    @Test
+    public void decodingEveryBindReusesPooledBitmaps() {
+        // With the memory cache emptied before each pass every bind decodes
+        // again, from the disk cache, into a bitmap taken from the pool.
+        for (int i = 0; WARM_UP_PASSES > i; i++) {
+            mLoader.getCache().clear();
+            mScroller.pass();
+            mScroller.settle();
+        }
+        
+        long allocations = mLoader.getAllocationCount();
+        // Disk cache reads take from the pool too, a miss there is a new bitmap.
+        int misses = mLoader.getPool().missCount();
+        int hits = mLoader.getPool().hitCount();
+        
+        for (int i = 0; PASSES > i; i++) {
+            mLoader.getCache().clear();
+            mScroller.pass();
+            mScroller.settle();
+        }
+        
+        assertEquals(allocations, mLoader.getAllocationCount());
+        assertEquals(misses, mLoader.getPool().missCount());
+        assertTrue(mLoader.getPool().hitCount() > hits);
+        
+        System.out.println("CategoryBitmapAllocationTest: " + (mLoader.getPool().hitCount() - hits)
+            + " pooled bitmaps reused over " + PASSES + " passes, " + mLoader.getAllocationCount() + " allocated in total");
+    }
+    
+}
@@ -0,0 +1,95 @@
+package com.mth.fastfood;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.content.Intent;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.mth.fastfood.utils.ViewPoolRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/*
+ * Scrolls the longest category back and forth and checks that rows are
+ * recycled: the holders ever created stay within what is on screen plus
+ * what the shared pool and the recycler's own cache may keep, and stop
+ * growing after the first pass.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CategoryViewHolderCountTest {
+    
+    // RecyclerView's view cache (2) plus one row prefetched by GapWorker.
+    private static final int CACHED_ROWS = 3;
+    private static final int PASSES = 4;
+    
+    private ActivityScenario<CategoryActivity> mScenario;
+    private ListScroller mScroller;
+    private ViewPoolRegistry mRegistry;
+    
+    @Before
+    public void setUp() {
+        Context ctx = ApplicationProvider.getApplicationContext();
+        mRegistry = ViewPoolRegistry.getInstance(ctx);
+        
+        Intent intent = new Intent(ctx, CategoryActivity.class);
+        intent.putExtra("category_id", ListScroller.longestCategory(ctx));
+        mScenario = ActivityScenario.launch(intent);
+        
+        mScenario.onActivity(new ActivityScenario.ActivityAction<CategoryActivity>() {
+            @Override
+            public void perform(CategoryActivity activity) {
+                mScroller = new ListScroller((RecyclerView) activity.findViewById(R.id.recycler_view));
+            }
+        });
+        
+        mScroller.awaitItems();
+    }
+    
+    @After
+    public void tearDown() {
+        mScenario.close();
+    }
+    
+    @Test
+    public void createdHoldersStayBoundedAcrossScrolls() {
+        mScroller.pass();
+        int holders = mScroller.getHolderCount();
+        
+        for (int i = 1; PASSES > i; i++) {
+            mScroller.pass();
+        }
+        
+        int poolLimit = mRegistry.getMaxRecycledViews(R.layout.content_category);
+        int bound = mScroller.getMaxChildCount() + poolLimit + CACHED_ROWS;
+        
+        assertEquals("holders kept being created after the first pass", holders, mScroller.getHolderCount());
+        assertTrue(mScroller.getHolderCount() + " holders for " + mScroller.getMaxChildCount() + " rows on screen, bound " + bound,
+            mScroller.getHolderCount() <= bound);
+        assertTrue(mScroller.getHolderCount() < mScroller.itemCount());
+    }
+    
+    @Test
+    public void sharedPoolStaysWithinItsLimit() {
+        for (int i = 0; PASSES > i; i++) {
+            mScroller.pass();
+        }
+        
+        final int pooled[] = new int[1];
+        
+        mScenario.onActivity(new ActivityScenario.ActivityAction<CategoryActivity>() {
+            @Override
+            public void perform(CategoryActivity activity) {
+                pooled[0] = mRegistry.getPool().getRecycledViewCount(R.layout.content_category);
+            }
+        });
+        
+        assertTrue(pooled[0] <= mRegistry.getMaxRecycledViews(R.layout.content_category));
+    }
+    
+}
@@ -0,0 +1,165 @@
+package com.mth.fastfood;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.os.SystemClock;
+import android.view.View;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.platform.app.InstrumentationRegistry;
+import com.mth.fastfood.utils.CategoryArray;
+import com.mth.fastfood.utils.CategoryRegistry;
+import java.util.HashSet;
+import java.util.List;
+
+/*
+ * Scrolls a RecyclerView from the instrumentation thread, a step per main
+ * looper turn, and keeps track of every ViewHolder it has shown. Create it
+ * on the main thread.
+ */
+class ListScroller {
+    
+    private static final int STEP_PX = 150;
+    // Long enough for a page or a decode to come back on an idle device.
+    private static final long SETTLE_MS = 300;
+    private static final long TIMEOUT_MS = 30000;
+    
+    private Instrumentation mInstrumentation = InstrumentationRegistry.getInstrumentation();
+    private RecyclerView mRecycler;
+    private HashSet<RecyclerView.ViewHolder> mHolders = new HashSet<RecyclerView.ViewHolder>();
+    private int maxChildCount = 0;
+    
+    ListScroller(RecyclerView recycler) {
+        this.mRecycler = recycler;
+        
+        recycler.addOnChildAttachStateChangeListener(new RecyclerView.OnChildAttachStateChangeListener() {
+            @Override
+            public void onChildViewAttachedToWindow(View view) {
+                mHolders.add(mRecycler.getChildViewHolder(view));
+                maxChildCount = Math.max(maxChildCount, mRecycler.getChildCount());
+            }
+            
+            @Override
+            public void onChildViewDetachedFromWindow(View view) {}
+        });
+    }
+    
+    // Id of the category with the most products, the longest list to scroll.
+    static int longestCategory(Context ctx) {
+        CategoryRegistry registry = CategoryRegistry.getInstance(ctx);
+        List<CategoryArray> all = registry.getAll();
+        int longest = all.get(0).getID();
+        
+        for (int i = 1; all.size() > i; i++) {
+            if (registry.getProductCount(all.get(i).getID()) > registry.getProductCount(longest)) {
+                longest = all.get(i).getID();
+            }
+        }
+        
+        return longest;
+    }
+    
+    RecyclerView getRecycler() {
+        return mRecycler;
+    }
+    
+    // Waits until the first page of the list is shown.
+    void awaitItems() {
+        long deadline = SystemClock.uptimeMillis() + TIMEOUT_MS;
+        
+        while (itemCount() == 0) {
+            if (SystemClock.uptimeMillis() > deadline) {
+                throw new AssertionError("list stayed empty");
+            }
+            
+            settle();
+        }
+    }
+    
+    // To the last row, loading pages on the way, and back to the first.
+    void pass() {
+        scroll(1);
+        scroll(-1);
+    }
+    
+    // Lets background work (pages, decodes) finish and post its result.
+    void settle() {
+        SystemClock.sleep(SETTLE_MS);
+        mInstrumentation.waitForIdleSync();
+    }
+    
+    // Distinct holders attached so far, which covers every holder created for the list.
+    int getHolderCount() {
+        final int count[] = new int[1];
+        
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                count[0] = mHolders.size();
+            }
+        });
+        
+        return count[0];
+    }
+    
+    int getMaxChildCount() {
+        final int count[] = new int[1];
+        
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                count[0] = maxChildCount;
+            }
+        });
+        
+        return count[0];
+    }
+    
+    int itemCount() {
+        final int count[] = new int[1];
+        
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                count[0] = mRecycler.getAdapter() == null ? 0 : mRecycler.getAdapter().getItemCount();
+            }
+        });
+        
+        return count[0];
+    }
+    
+    private void scroll(final int direction) {
+        final boolean moved[] = new boolean[1];
+        long deadline = SystemClock.uptimeMillis() + TIMEOUT_MS;
+        boolean settled = false;
+        
+        while (SystemClock.uptimeMillis() < deadline) {
+            mInstrumentation.runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    moved[0] = mRecycler.canScrollVertically(direction);
+                    
+                    if (moved[0]) {
+                        mRecycler.scrollBy(0, direction * STEP_PX);
+                    }
+                }
+            });
+            mInstrumentation.waitForIdleSync();
+            
+            if (moved[0]) {
+                settled = false;
+                continue;
+            }
+            
+            // At the end: done, unless waiting brings in another page.
+            if (settled) {
+                return;
+            }
+            
+            settle();
+            settled = true;
+        }
+        
+        throw new AssertionError("list never reached its end");
+    }
+    
+}
@@ -0,0 +1,108 @@
+package com.mth.fastfood;
+
+import static org.junit.Assert.assertTrue;
+
+import android.app.Instrumentation;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import com.mth.fastfood.utils.PreInflater;
+import com.mth.fastfood.utils.ViewPoolRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/*
+ * Main thread time per home row, inflated on the spot versus taken from
+ * the pre-inflated stock. Both figures go to the test output and logcat.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PreInflaterBenchmarkTest {
+    
+    private static final String TAG = "PreInflaterBenchmark";
+    
+    private static final int ROWS = 20;
+    private static final long TIMEOUT_MS = 10000;
+    
+    private Instrumentation mInstrumentation = InstrumentationRegistry.getInstrumentation();
+    private PreInflater mPreInflater;
+    private RecyclerView mParent;
+    
+    @Before
+    public void setUp() {
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mPreInflater = PreInflater.getInstance(ApplicationProvider.getApplicationContext());
+                mPreInflater.clear();
+                
+                mParent = new RecyclerView(ViewPoolRegistry.getInstance(ApplicationProvider.getApplicationContext()).getInflater().getContext());
+                mParent.setLayoutManager(new LinearLayoutManager(mParent.getContext()));
+            }
+        });
+    }
+    
+    @Test
+    public void stockedRowsCostLessThanInflatingThem() {
+        // Empty stock: every row is inflated on the main thread.
+        inflateRows();
+        
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mPreInflater.prefill(R.layout.content_home_cardview, ROWS);
+            }
+        });
+        
+        awaitStock();
+        inflateRows();
+        
+        long inflated = mPreInflater.getAverageInflateTimeMicros();
+        long stocked = mPreInflater.getAverageStockTimeMicros();
+        String report = "content_home_cardview: " + inflated + "us per row inflated on the main thread, "
+            + stocked + "us per row from stock";
+        
+        Log.i(TAG, report);
+        System.out.println(TAG + ": " + report);
+        
+        assertTrue(report, stocked < inflated);
+    }
+    
+    private void inflateRows() {
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; ROWS > i; i++) {
+                    mPreInflater.inflate(R.layout.content_home_cardview, mParent);
+                }
+            }
+        });
+    }
+    
+    private void awaitStock() {
+        final int size[] = new int[1];
+        long deadline = SystemClock.uptimeMillis() + TIMEOUT_MS;
+        
+        while (SystemClock.uptimeMillis() < deadline) {
+            mInstrumentation.runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    size[0] = mPreInflater.getStockSize(R.layout.content_home_cardview);
+                }
+            });
+            
+            if (size[0] >= ROWS) {
+                return;
+            }
+            
+            SystemClock.sleep(20);
+        }
+        
+        throw new AssertionError("stock stopped at " + size[0] + " rows");
+    }
+    
+}
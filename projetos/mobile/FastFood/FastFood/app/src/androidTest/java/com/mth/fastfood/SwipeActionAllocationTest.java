@@ -0,0 +1,114 @@
+package com.mth.fastfood;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Debug;
+import android.view.View;
+import androidx.recyclerview.widget.ItemTouchHelper;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import com.mth.fastfood.utils.SwipeAction;
+import com.mth.fastfood.utils.SwipeActionCallback;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/*
+ * Drives SwipeActionCallback.onChildDraw() through whole swipes, both ways
+ * and across every action band, on a real canvas. Once a first swipe
+ * each way has been drawn, no frame may allocate anything on the main
+ * thread.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SwipeActionAllocationTest {
+    
+    private static final int ROW_WIDTH = 1080;
+    private static final int ROW_HEIGHT = 240;
+    // Frames per swipe, from rest to the far edge.
+    private static final int FRAMES = 120;
+    
+    // Written to make the calibration allocation escape.
+    private static Object sSink;
+    
+    private int allocations = -1;
+    private boolean counting = false;
+    
+    @Test
+    public void swipeFramesAllocateNothing() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                measure();
+            }
+        });
+        
+        assumeTrue("allocation counting unsupported on this runtime", counting);
+        assertEquals("objects allocated while swiping", 0, allocations);
+    }
+    
+    private void measure() {
+        Context ctx = ApplicationProvider.getApplicationContext();
+        
+        SwipeActionCallback callback = new SwipeActionCallback(new SwipeAction[] {
+            new SwipeAction(ctx, R.id.swipe_delete, R.drawable.ic_delete, R.color.red_500),
+            new SwipeAction(ctx, R.id.swipe_delete, R.drawable.ic_favorite, R.color.amber_500),
+            new SwipeAction(ctx, R.id.swipe_delete, R.drawable.ic_bookmark, R.color.grey_500)
+        }, new SwipeAction[] {
+            new SwipeAction(ctx, R.id.swipe_delete, R.drawable.ic_star, R.color.amber_500)
+        }) {
+            @Override
+            public void onAction(RecyclerView.ViewHolder holder, SwipeAction action) {}
+        };
+        
+        RecyclerView recycler = new RecyclerView(ctx);
+        recycler.setLayoutManager(new LinearLayoutManager(ctx));
+        
+        View row = new View(ctx);
+        row.measure(View.MeasureSpec.makeMeasureSpec(ROW_WIDTH, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(ROW_HEIGHT, View.MeasureSpec.EXACTLY));
+        row.layout(0, 0, ROW_WIDTH, ROW_HEIGHT);
+        
+        RecyclerView.ViewHolder holder = new RecyclerView.ViewHolder(row) {};
+        Canvas canvas = new Canvas(Bitmap.createBitmap(ROW_WIDTH, ROW_HEIGHT, Bitmap.Config.ARGB_8888));
+        
+        // The first frames may set things up: the raised elevation kept in a
+        // view tag, the first draw of each icon.
+        swipe(callback, canvas, recycler, holder, -1);
+        swipe(callback, canvas, recycler, holder, 1);
+        
+        // Checks that the counter sees an allocation at all.
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        sSink = new int[4];
+        Debug.stopAllocCounting();
+        counting = Debug.getThreadAllocCount() > 0;
+        
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        
+        swipe(callback, canvas, recycler, holder, -1);
+        swipe(callback, canvas, recycler, holder, 1);
+        
+        Debug.stopAllocCounting();
+        allocations = Debug.getThreadAllocCount();
+    }
+    
+    // Out to the edge while held, then settling back after the release.
+    private static void swipe(SwipeActionCallback callback, Canvas canvas, RecyclerView recycler, RecyclerView.ViewHolder holder, int sign) {
+        for (int i = 1; FRAMES >= i; i++) {
+            float dX = sign * (float) ROW_WIDTH * i / FRAMES;
+            callback.onChildDraw(canvas, recycler, holder, dX, 0, ItemTouchHelper.ACTION_STATE_SWIPE, true);
+        }
+        
+        for (int i = FRAMES; i > 0; i--) {
+            float dX = sign * (float) ROW_WIDTH * i / FRAMES;
+            callback.onChildDraw(canvas, recycler, holder, dX, 0, ItemTouchHelper.ACTION_STATE_SWIPE, false);
+        }
+    }
+    
+}
@@ -0,0 +1,127 @@
+package com.mth.fastfood;
+
+import static org.junit.Assert.assertTrue;
+
+import android.app.Instrumentation;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentManager;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import com.mth.fastfood.fragments.ExploreFragment;
+import com.mth.fastfood.fragments.HomeFragment;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/*
+ * Main thread time of a tab switch, up to the new tab laid out: the kept
+ * fragments of MainActivity.showTab() against replacing the container with
+ * a new fragment, as tab switches used to. Both figures go to the test
+ * output and logcat.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TabSwitchBenchmarkTest {
+    
+    private static final String TAG = "TabSwitchBenchmark";
+    
+    private static final int SWITCHES = 20;
+    // Long enough for a tab's first page to come back on an idle device.
+    private static final long SETTLE_MS = 300;
+    
+    private Instrumentation mInstrumentation = InstrumentationRegistry.getInstrumentation();
+    private ActivityScenario<MainActivity> mScenario;
+    private MainActivity mActivity;
+    
+    @Before
+    public void setUp() {
+        mScenario = ActivityScenario.launch(MainActivity.class);
+        mScenario.onActivity(new ActivityScenario.ActivityAction<MainActivity>() {
+            @Override
+            public void perform(MainActivity activity) {
+                mActivity = activity;
+            }
+        });
+        
+        // Both tabs exist and hold their first page before anything is timed.
+        switchTab(2, false);
+        settle();
+        switchTab(1, false);
+        settle();
+    }
+    
+    @After
+    public void tearDown() {
+        mScenario.close();
+    }
+    
+    @Test
+    public void keptTabsSwitchFasterThanReplacedOnes() {
+        long kept = 0;
+        long replaced = 0;
+        
+        for (int i = 0; SWITCHES > i; i++) {
+            kept += switchTab(i % 2 == 0 ? 2 : 1, false);
+            settle();
+        }
+        
+        // Last, as it throws away the tabs showTab() keeps.
+        for (int i = 0; SWITCHES > i; i++) {
+            replaced += switchTab(i % 2 == 0 ? 2 : 1, true);
+            settle();
+        }
+        
+        kept /= SWITCHES * 1000;
+        replaced /= SWITCHES * 1000;
+        String report = SWITCHES + " switches: " + kept + "us per switch with kept tabs, "
+            + replaced + "us replacing the fragment";
+        
+        Log.i(TAG, report);
+        System.out.println(TAG + ": " + report);
+        
+        assertTrue(report, kept < replaced);
+    }
+    
+    // Nanoseconds from the switch until the activity is laid out again.
+    private long switchTab(final int state, final boolean replace) {
+        final long time[] = new long[1];
+        
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                FragmentManager manager = mActivity.getSupportFragmentManager();
+                long start = System.nanoTime();
+                
+                if (replace) {
+                    Fragment fragment = state == 1 ? new HomeFragment() : new ExploreFragment();
+                    manager.beginTransaction().replace(R.id.frame_layout, fragment).commitNow();
+                }else {
+                    mActivity.showTab(state);
+                    manager.executePendingTransactions();
+                }
+                
+                layout(mActivity.getWindow().getDecorView());
+                time[0] = System.nanoTime() - start;
+            }
+        });
+        
+        return time[0];
+    }
+    
+    // What the next traversal would do, so that binding the rows is counted.
+    private static void layout(View root) {
+        root.measure(View.MeasureSpec.makeMeasureSpec(root.getWidth(), View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(root.getHeight(), View.MeasureSpec.EXACTLY));
+        root.layout(root.getLeft(), root.getTop(), root.getRight(), root.getBottom());
+    }
+    
+    private void settle() {
+        SystemClock.sleep(SETTLE_MS);
+        mInstrumentation.waitForIdleSync();
+    }
+    
+}
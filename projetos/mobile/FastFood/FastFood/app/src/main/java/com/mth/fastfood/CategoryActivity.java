@@ -6,26 +6,36 @@ import android.view.Menu;
 import android.view.MenuInflater;
 import android.view.MenuItem;
 import android.view.View;
+import android.widget.TextView;
 import android.widget.Toast;
 import androidx.annotation.MainThread;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
-import androidx.core.widget.NestedScrollView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.appbar.AppBarLayout;
 import com.mth.fastfood.CategoryActivity;
 import com.mth.fastfood.adapter.RecyclerViewAdapter;
 import com.mth.fastfood.inter.OnItemClickListener;
+import com.mth.fastfood.inter.OnProductsLoadListener;
+import com.mth.fastfood.inter.PageSource;
+import com.mth.fastfood.utils.CatalogRepository;
+import com.mth.fastfood.utils.CategoryArray;
+import com.mth.fastfood.utils.CategoryRegistry;
 import com.mth.fastfood.utils.ProductArray;
+import com.mth.fastfood.utils.ProductPager;
+import com.mth.fastfood.utils.PreInflater;
+import com.mth.fastfood.utils.ViewPoolRegistry;
 import java.util.ArrayList;
 
 public class CategoryActivity extends AppCompatActivity {
 
     private AppBarLayout mAppBarLayout;
     private Toolbar mToolbar;
-    private NestedScrollView mNestedScrollView;
-    private String category_name;
+    private CategoryArray mCategory;
+    private CatalogRepository mCatalog;
+    private ProductPager mPager;
+    private TextView mEmptyView;
 
     private RecyclerView mRecycler;
     private RecyclerViewAdapter mAdapter;
@@ -35,10 +45,16 @@ public class CategoryActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        setContentView(R.layout.activity_category);
 
-        String category = getIntent().getStringExtra("category_name");
-        category_name = category;
+        mCategory = CategoryRegistry.getInstance(this).get(getIntent().getIntExtra("category_id", 0));
+
+        if (mCategory == null) {
+            finish();
+            return;
+        }
+
+        PreInflater.getInstance(this).prefill(R.layout.content_category, getResources().getInteger(R.integer.pre_inflate_rows));
+        setContentView(R.layout.activity_category);
 
         main();
         logic();
@@ -47,22 +63,21 @@ public class CategoryActivity extends AppCompatActivity {
     public void main() {
         mAppBarLayout = (AppBarLayout) findViewById(R.id.app_bar_layout);
         mToolbar = (Toolbar) findViewById(R.id.toolbar);
-        mNestedScrollView = (NestedScrollView) findViewById(R.id.nested_scroll_view);
         mRecycler = (RecyclerView) findViewById(R.id.recycler_view);
+        mEmptyView = (TextView) findViewById(R.id.empty_view);
         llm = new LinearLayoutManager(this);
     }
 
     public void logic() {
-        mToolbar.setTitle(category_name);
+        mToolbar.setTitle(mCategory.getName());
         setSupportActionBar(mToolbar);
         getSupportActionBar().setDisplayHomeAsUpEnabled(true);
 
-        mNestedScrollView.setOnScrollChangeListener(
-                new View.OnScrollChangeListener() {
+        mRecycler.addOnScrollListener(
+                new RecyclerView.OnScrollListener() {
                     @Override
-                    public void onScrollChange(
-                            View v, int scrollX, int scrollY, int oldScrollX, int oldScrollY) {
-                        if (scrollY == 0) {
+                    public void onScrolled(RecyclerView recycler, int dx, int dy) {
+                        if (!recycler.canScrollVertically(-1)) {
                             mAppBarLayout.setElevation(0);
                         } else {
                             int elevation =
@@ -75,106 +90,35 @@ public class CategoryActivity extends AppCompatActivity {
         mRecycler.setHasFixedSize(true);
         mRecycler.setLayoutManager(llm);
 
-        int img[] = {
-            R.drawable.hamburguer_01,
-            R.drawable.hamburguer_02,
-            R.drawable.hamburguer_03,
-            R.drawable.hamburguer_04,
-            R.drawable.hamburguer_05,
-            R.drawable.hamburguer_06,
-            R.drawable.hamburguer_07,
-            R.drawable.hamburguer_08,
-            R.drawable.hamburguer_09
-        };
-
-        if (category_name.equals("Hambúrguer 1")) {
-            int hamburgue[] = {
-                R.drawable.hamburguer_01,
-                R.drawable.hamburguer_02,
-                R.drawable.hamburguer_03,
-                R.drawable.hamburguer_04,
-                R.drawable.hamburguer_05,
-                R.drawable.hamburguer_06,
-                R.drawable.hamburguer_07,
-                R.drawable.hamburguer_08,
-                R.drawable.hamburguer_09,
-                R.drawable.hamburguer_10,
-                R.drawable.hamburguer_11
-            };
-
-            img = hamburgue;
-
-        } else if (category_name.equals("Hambúrguer 2")) {
-            int hamburgue[] = {
-                R.drawable.hamburguer_01_01,
-                R.drawable.hamburguer_01_02,
-                R.drawable.hamburguer_01_03,
-                R.drawable.hamburguer_01_04
-            };
-
-            img = hamburgue;
-        }else if (category_name.equals("Pizza")) {
-            int pizza[] = {
-                R.drawable.pizza_01,
-                R.drawable.pizza_02,
-                R.drawable.pizza_03,
-                R.drawable.pizza_04,
-                R.drawable.pizza_05,
-                R.drawable.pizza_06,
-                R.drawable.pizza_07
-            };
-
-            img = pizza;
-        }else if (category_name.equals("Variados")) {
-            int variados[] = {
-                R.drawable.variados_01,
-                R.drawable.variados_02,
-                R.drawable.variados_03,
-                R.drawable.variados_04,
-                R.drawable.variados_05,
-                R.drawable.variados_06,
-                R.drawable.variados_07,
-                R.drawable.variados_08,
-                R.drawable.variados_09,
-                R.drawable.variados_10,
-                R.drawable.variados_11,
-                R.drawable.variados_12,
-                R.drawable.variados_13,
-                R.drawable.variados_14,
-                R.drawable.variados_15,
-                R.drawable.variados_16,
-                R.drawable.variados_17,
-                R.drawable.variados_18,
-                R.drawable.variados_19,
-                R.drawable.variados_20,
-                R.drawable.variados_21,
-                R.drawable.variados_22,
-                R.drawable.variados_23,
-                R.drawable.variados_24
-            };
-            
-            img = variados;
-        }
+        ViewPoolRegistry registry = ViewPoolRegistry.getInstance(this);
+        mRecycler.setRecycledViewPool(registry.getPool());
 
-        for (int i = 0; img.length > i; i++) {
-            ProductArray array = new ProductArray();
-            array.setImage(img[i]);
-            array.setTitle("Lorem ipsum dolor sit amet, consectetur adipiscing elit.");
-            array.setAdrress("Endereço");
-            array.setCampanyName("Empresa nome");
-            array.setCampanyHour("Empresa Horário");
+        mAdapter = new RecyclerViewAdapter(this, R.layout.content_category, array_list);
+        mRecycler.setAdapter(mAdapter);
+        registry.prewarm(mRecycler, mAdapter, R.layout.content_category, getResources().getInteger(R.integer.view_pool_prewarm_rows));
 
-            array_list.add(array);
+        if (CategoryRegistry.getInstance(this).getProductCount(mCategory.getID()) == 0) {
+            mRecycler.setVisibility(View.GONE);
+            mEmptyView.setVisibility(View.VISIBLE);
+            return;
         }
 
-        mAdapter = new RecyclerViewAdapter(this, R.layout.content_category, array_list);
-        mRecycler.setAdapter(mAdapter);
+        mCatalog = CatalogRepository.getInstance(this);
+        mPager = new ProductPager(mAdapter, new PageSource() {
+            @Override
+            public void loadPage(int fromPosition, int limit, OnProductsLoadListener listener) {
+                mCatalog.loadCategory(mCategory.getID(), fromPosition, limit, listener);
+            }
+        }, getResources().getInteger(R.integer.catalog_page_size), getResources().getInteger(R.integer.catalog_window_pages));
+
+        mRecycler.addOnScrollListener(mPager);
+        mPager.start();
 
         mAdapter.setOnItemClickListener(new OnItemClickListener() {
             @Override
             public void onClick(int position) {
                     Intent intent = new Intent(CategoryActivity.this, SingleActivity.class);
-                    intent.putExtra("imageID", array_list.get(position).getImage());
+                    intent.putExtra("productID", array_list.get(position).getID());
                     startActivity(intent);
             }
         });
@@ -211,10 +155,13 @@ public class CategoryActivity extends AppCompatActivity {
         Toast.makeText(this, str, Toast.LENGTH_SHORT).show();
     }
 
-    public void goSingle(View view) {
-        Intent intent = new Intent(CategoryActivity.this, SingleActivity.class);
-        startActivity(intent);
-        overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+
+        if (mRecycler != null) {
+            mRecycler.swapAdapter(null, true);
+        }
     }
 
     @Override
@@ -17,8 +17,10 @@ import android.widget.Toast;
 import androidx.appcompat.widget.Toolbar;
 import androidx.cardview.widget.CardView;
 import androidx.drawerlayout.widget.DrawerLayout;
+import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
 import androidx.fragment.app.FragmentTransaction;
+import androidx.lifecycle.Lifecycle;
 import com.google.android.material.appbar.AppBarLayout;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.navigation.NavigationView;
@@ -33,6 +35,7 @@ import com.itsaky.androidide.logsender.LogSender;
 import com.mth.fastfood.fragments.BoardingStep1Fragment;
 import com.mth.fastfood.fragments.ExploreFragment;
 import com.mth.fastfood.fragments.HomeFragment;
+import com.mth.fastfood.utils.PreInflater;
 import com.mth.fastfood.widget.MyEditText;
 
 public class MainActivity extends AppCompatActivity implements BottomNavigationView.OnItemSelectedListener {
@@ -54,11 +57,17 @@ public class MainActivity extends AppCompatActivity implements BottomNavigationV
 		// Remove this line if you don't want AndroidIDE to show this app's logs
 		LogSender.startLogging(this);
         super.onCreate(savedInstanceState);
+        // Start on the home feed rows while the rest of the screen is set up
+        PreInflater.getInstance(this).prefill(R.layout.content_home_cardview, getResources().getInteger(R.integer.pre_inflate_rows));
         // Inflate and get instance of binding
 		binding = ActivityMainBinding.inflate(getLayoutInflater());
         // set content view to binding's root
         setContentView(binding.getRoot());
         
+        if (savedInstanceState != null) {
+            FRAGMENT_STATE = savedInstanceState.getInt("fragment_state", 1);
+        }
+        
         String data = this.getIntent().getStringExtra("data");
         
         String home = "";
@@ -98,9 +107,13 @@ public class MainActivity extends AppCompatActivity implements BottomNavigationV
         toggle.syncState();
         
         mFragmentManager = getSupportFragmentManager();
-        mFragmentTransaction = mFragmentManager.beginTransaction();
-        mFragmentTransaction.add(R.id.frame_layout, new HomeFragment());
-        mFragmentTransaction.commit();
+        
+        // After a recreation the tabs come back from the saved state.
+        if (mFragmentManager.findFragmentByTag(tag(FRAGMENT_STATE)) == null) {
+            mFragmentTransaction = mFragmentManager.beginTransaction();
+            mFragmentTransaction.add(R.id.frame_layout, FRAGMENT_STATE == 1 ? new HomeFragment() : new ExploreFragment(), tag(FRAGMENT_STATE));
+            mFragmentTransaction.commit();
+        }
         
         mNavigation.setOnItemSelectedListener(this);
     }
@@ -111,24 +124,12 @@ public class MainActivity extends AppCompatActivity implements BottomNavigationV
             public boolean onNavigationItemSelected(MenuItem item) {
                 switch (item.getItemId()) {
                     case R.id.navigation_home:
-                        mFragmentManager = getSupportFragmentManager();
-                        mFragmentTransaction = mFragmentManager.beginTransaction();
-                        mFragmentTransaction.replace(R.id.frame_layout, new HomeFragment());
-                        mFragmentTransaction.commit();
-                        FRAGMENT_STATE = 1;
-                        
-                        mAppBarLayout.setVisibility(View.VISIBLE);
+                        showTab(1);
                         mNavigation.setSelectedItemId(R.id.navigation_home);
                     break;
                     
                     case R.id.navigation_explore:
-                        mFragmentManager = getSupportFragmentManager();
-                        mFragmentTransaction = mFragmentManager.beginTransaction();
-                        mFragmentTransaction.replace(R.id.frame_layout, new ExploreFragment());
-                        mFragmentTransaction.commit();
-                        FRAGMENT_STATE = 2;
-                        
-                        mAppBarLayout.setVisibility(View.VISIBLE);
+                        showTab(2);
                         mNavigation.setSelectedItemId(R.id.navigation_explore);
                     break;
                     
@@ -165,29 +166,57 @@ public class MainActivity extends AppCompatActivity implements BottomNavigationV
         });
     }
     
+    /*
+     * Brings a tab to the front. Each tab fragment is created once and then
+     * only hidden, so its views, adapter and scroll position are still
+     * there when it comes back; the hidden one is held at STARTED and gets
+     * no onResume. Selecting the tab already shown does nothing.
+     */
+    public void showTab(int state) {
+        mAppBarLayout.setVisibility(View.VISIBLE);
+        
+        Fragment current = mFragmentManager.findFragmentByTag(tag(FRAGMENT_STATE));
+        
+        if (state == FRAGMENT_STATE && current != null) {
+            return;
+        }
+        
+        Fragment next = mFragmentManager.findFragmentByTag(tag(state));
+        
+        mFragmentTransaction = mFragmentManager.beginTransaction();
+        mFragmentTransaction.setReorderingAllowed(true);
+        
+        if (current != null && current != next) {
+            mFragmentTransaction.hide(current);
+            mFragmentTransaction.setMaxLifecycle(current, Lifecycle.State.STARTED);
+        }
+        
+        if (next == null) {
+            mFragmentTransaction.add(R.id.frame_layout, state == 1 ? new HomeFragment() : new ExploreFragment(), tag(state));
+        }else {
+            mFragmentTransaction.show(next);
+            mFragmentTransaction.setMaxLifecycle(next, Lifecycle.State.RESUMED);
+        }
+        
+        mFragmentTransaction.commit();
+        FRAGMENT_STATE = state;
+    }
+    
+    private static String tag(int state) {
+        return state == 1 ? "home" : "explore";
+    }
+    
     @Override
     public boolean onNavigationItemSelected(MenuItem item) {
         
         switch (item.getItemId()) {
             case R.id.navigation_home:
-                mFragmentManager = getSupportFragmentManager();
-                mFragmentTransaction = mFragmentManager.beginTransaction();
-                mFragmentTransaction.replace(R.id.frame_layout, new HomeFragment());
-                mFragmentTransaction.commit();
-                FRAGMENT_STATE = 1;
-                
-                mAppBarLayout.setVisibility(View.VISIBLE);
+                showTab(1);
                 //mNavigation.setSelectedItemId(R.id.navigation_home);
             break;
             
             case R.id.navigation_explore:
-                mFragmentManager = getSupportFragmentManager();
-                mFragmentTransaction = mFragmentManager.beginTransaction();
-                mFragmentTransaction.replace(R.id.frame_layout, new ExploreFragment());
-                mFragmentTransaction.commit();
-                FRAGMENT_STATE = 2;
-                
-                mAppBarLayout.setVisibility(View.VISIBLE);
+                showTab(2);
                 //mNavigation.setSelectedItemId(R.id.navigation_explore);
             break;
             
@@ -231,39 +260,34 @@ public class MainActivity extends AppCompatActivity implements BottomNavigationV
         
     }
     
-    public void goSingle(View view) {
-        Intent intent = new Intent(MainActivity.this, SingleActivity.class);
-        startActivity(intent);
-        overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
-    }
-    
     @Override
     protected void onResume() {
         super.onResume();
         
-        if (FRAGMENT_STATE == 1) {
-            mNavigation.setSelectedItemId(R.id.navigation_home);
-        }else {
-            mNavigation.setSelectedItemId(R.id.navigation_explore);
+        int selected = FRAGMENT_STATE == 1 ? R.id.navigation_home : R.id.navigation_explore;
+        
+        // Only puts the highlight back after leaving for the account tab.
+        if (mNavigation.getSelectedItemId() != selected) {
+            mNavigation.setSelectedItemId(selected);
         }
         
     }
     
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        
+        outState.putInt("fragment_state", FRAGMENT_STATE);
+    }
+    
     public void alerta(String str) {
         Toast.makeText(this, str, Toast.LENGTH_SHORT).show();
     }
     
     public void back() {
-        mFragmentManager = getSupportFragmentManager();
-        mFragmentTransaction = mFragmentManager.beginTransaction();
-        mFragmentTransaction.replace(R.id.frame_layout, new HomeFragment());
-        mFragmentTransaction.commit();
-        
+        showTab(1);
         mNavigation.setSelectedItemId(R.id.navigation_home);
         
-        FRAGMENT_STATE = 1;
-        
-        mAppBarLayout.setVisibility(View.VISIBLE);
         mNavigationView.setVisibility(View.VISIBLE);
     }
     
@@ -2,13 +2,17 @@ package com.mth.fastfood;
 
 import android.animation.ObjectAnimator;
 import android.content.Context;
+import android.content.Intent;
 import android.os.Bundle;
 import android.text.Editable;
 import android.text.TextWatcher;
+import android.view.KeyEvent;
 import android.view.View;
+import android.view.inputmethod.EditorInfo;
 import android.view.inputmethod.InputMethodManager;
 import android.widget.EditText;
 import android.widget.ImageButton;
+import android.widget.TextView;
 import androidx.annotation.MainThread;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -16,9 +20,18 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.appbar.AppBarLayout;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.mth.fastfood.adapter.RecyclerViewAdapterSuggestions;
+import com.mth.fastfood.inter.OnHistoryLoadListener;
 import com.mth.fastfood.inter.OnItemClickListener;
+import com.mth.fastfood.inter.OnSearchListener;
+import com.mth.fastfood.utils.CatalogRepository;
+import com.mth.fastfood.utils.ProductArray;
+import com.mth.fastfood.utils.SearchHistory;
+import com.mth.fastfood.utils.SearchIndex;
+import com.mth.fastfood.utils.SearchScheduler;
 import com.mth.fastfood.utils.SearchSuggestions;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 public class SearchActivity extends AppCompatActivity {
 
@@ -29,11 +42,21 @@ public class SearchActivity extends AppCompatActivity {
     private RecyclerViewAdapterSuggestions mAdapter;
     private LinearLayoutManager llm;
     private ArrayList<SearchSuggestions> array_list = new ArrayList<SearchSuggestions>();
+    // Shown while the search box is empty, past searches first.
+    private ArrayList<SearchSuggestions> history_list = new ArrayList<SearchSuggestions>();
+    private ArrayList<SearchSuggestions> default_list = new ArrayList<SearchSuggestions>();
+    // Products behind the rows, while array_list shows search results.
+    private ArrayList<ProductArray> result_list = new ArrayList<ProductArray>();
+    
+    private SearchScheduler mScheduler;
+    private SearchHistory mHistory;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_search);
+        
+        CatalogRepository.getInstance(this).prepareSearch();
 
         main();
         logic();
@@ -65,22 +88,6 @@ public class SearchActivity extends AppCompatActivity {
         mRecycler.setHasFixedSize(true);
         mRecycler.setLayoutManager(llm);
         
-        String[] hist = {
-            "Hamburgue",
-            "Hamburgue x-tudo",
-            "Pizza pequena",
-            "Refrigerante de laranja"
-        };
-
-        for (int i = 0; hist.length > i; i++) {
-            SearchSuggestions item = new SearchSuggestions();
-            item.setID(i);
-            item.setName(hist[i]);
-            item.setType(SearchSuggestions.TYPE_HISTORIC);
-
-            array_list.add(item);
-        }
-
         String[] items = {
             "Hambúrgue",
             "Pizza média",
@@ -90,13 +97,16 @@ public class SearchActivity extends AppCompatActivity {
 
         for (int i = 0; items.length > i; i++) {
             SearchSuggestions item = new SearchSuggestions();
-            item.setID(i);
+            // Negative, not to be taken for a product row by the adapter diff.
+            item.setID(-1 - i);
             item.setName(items[i]);
             item.setType(SearchSuggestions.TYPE_SUGGESTIONS);
 
-            array_list.add(item);
+            default_list.add(item);
         }
 
+        array_list.addAll(default_list);
+        
         mAdapter = new RecyclerViewAdapterSuggestions(this, array_list);
         mRecycler.setAdapter(mAdapter);
         
@@ -104,11 +114,108 @@ public class SearchActivity extends AppCompatActivity {
             new OnItemClickListener() {
                 @Override
                 public void onClick(int position) {
-                    mSearch.setText(array_list.get(position).getName());
+                    if (result_list.isEmpty()) {
+                        mSearch.setText(array_list.get(position).getName());
+                        mSearch.setSelection(mSearch.length());
+                        return;
+                    }
+                    
+                    mHistory.record(mSearch.getText().toString());
+                    
+                    Intent intent = new Intent(SearchActivity.this, SingleActivity.class);
+                    intent.putExtra("productID", result_list.get(position).getID());
+                    startActivity(intent);
                 }
             }
         );
         
+        mSearch.setOnEditorActionListener(
+            new TextView.OnEditorActionListener() {
+                @Override
+                public boolean onEditorAction(TextView view, int actionId, KeyEvent event) {
+                    if (actionId != EditorInfo.IME_ACTION_SEARCH) {
+                        return false;
+                    }
+                    
+                    mHistory.record(mSearch.getText().toString());
+                    return false;
+                }
+            }
+        );
+        
+        mHistory = SearchHistory.getInstance(this);
+        mHistory.load(getResources().getInteger(R.integer.search_history_shown), new OnHistoryLoadListener() {
+            @Override
+            public void onLoad(List<String> queries) {
+                if (isFinishing() || isDestroyed()) {
+                    return;
+                }
+                
+                for (int i = 0; queries.size() > i; i++) {
+                    SearchSuggestions item = new SearchSuggestions();
+                    item.setID(SearchIndex.normalize(queries.get(i)).hashCode());
+                    item.setName(queries.get(i));
+                    item.setType(SearchSuggestions.TYPE_HISTORIC);
+                    
+                    history_list.add(item);
+                }
+                
+                if (mScheduler.getLatest().isEmpty()) {
+                    showResults("", Collections.<ProductArray>emptyList());
+                }
+            }
+        });
+        
+        mScheduler = new SearchScheduler(this, new OnSearchListener() {
+            @Override
+            public void onResult(String query, List<ProductArray> products) {
+                showResults(query, products);
+            }
+        });
+        
+        mSearch.addTextChangedListener(
+            new TextWatcher() {
+                @Override
+                public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+                
+                @Override
+                public void onTextChanged(CharSequence s, int start, int before, int count) {}
+                
+                @Override
+                public void afterTextChanged(Editable s) {
+                    mScheduler.onInput(s.toString());
+                }
+            }
+        );
+        
+    }
+    
+    public void showResults(String query, List<ProductArray> products) {
+        ArrayList<SearchSuggestions> list = new ArrayList<SearchSuggestions>();
+        result_list.clear();
+        
+        if (query.isEmpty()) {
+            list.addAll(history_list);
+            list.addAll(default_list);
+        }else {
+            for (int i = 0; products.size() > i; i++) {
+                list.add(SearchSuggestions.obtain((int) products.get(i).getID(), products.get(i).getTitle(), SearchSuggestions.TYPE_SUGGESTIONS));
+            }
+            
+            result_list.addAll(products);
+        }
+        
+        mAdapter.submitList(list);
+    }
+    
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        
+        if (mScheduler != null) {
+            mScheduler.cancel();
+        }
+
     }
 
     @Override
@@ -1,24 +1,34 @@
 package com.mth.fastfood;
 
+import android.content.Intent;
 import android.graphics.Color;
 import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuInflater;
 import android.view.MenuItem;
 import android.view.View;
-import android.widget.LinearLayout;
+import android.widget.TextView;
 import androidx.annotation.MainThread;
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.core.widget.NestedScrollView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.appbar.AppBarLayout;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
-import com.mth.fastfood.adapter.RecyclerViewAdapter;
+import com.mth.fastfood.adapter.CartAdapter;
+import com.mth.fastfood.inter.OnCartChangeListener;
 import com.mth.fastfood.inter.OnItemClickListener;
+import com.mth.fastfood.inter.OnProductsLoadListener;
+import com.mth.fastfood.inter.OnSelectionChangeListener;
+import com.mth.fastfood.utils.CartLine;
+import com.mth.fastfood.utils.CartStore;
+import com.mth.fastfood.utils.CatalogRepository;
+import com.mth.fastfood.utils.Money;
 import com.mth.fastfood.utils.ProductArray;
-import com.mth.fastfood.utils.SwipeToDeleteCallback;
+import com.mth.fastfood.utils.SwipeAction;
+import com.mth.fastfood.utils.SwipeActionCallback;
 import androidx.recyclerview.widget.ItemTouchHelper;
-import java.util.ArrayList;
+import java.util.List;
 import com.google.android.material.snackbar.Snackbar;
 
 public class ShopCartActivity extends AppCompatActivity {
@@ -27,13 +37,23 @@ public class ShopCartActivity extends AppCompatActivity {
     private MaterialToolbar mToolbar;
     
     private RecyclerView mRecycler;
-    private RecyclerViewAdapter mAdapter;
+    private CartAdapter mAdapter;
     private LinearLayoutManager llm;
-    private ArrayList<ProductArray> array_list = new ArrayList<ProductArray>();
-    private LinearLayout mLinearLayout;
     
-    private NestedScrollView mNestedScrollView;
     private BottomNavigationView mBottomNavigationView;
+    private TextView mTotal;
+    
+    private CartStore mCart;
+    private CatalogRepository mCatalog;
+    // What the undo of the snackbar on screen puts back.
+    private CartStore.Removal mRemoval;
+    private Snackbar mSnackbar;
+    private OnCartChangeListener mCartListener = new OnCartChangeListener() {
+        @Override
+        public void onChange() {
+            refresh();
+        }
+    };
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -51,9 +71,8 @@ public class ShopCartActivity extends AppCompatActivity {
         mToolbar = (MaterialToolbar) findViewById(R.id.toolbar);
         mRecycler = (RecyclerView) findViewById(R.id.recycler_view);
         llm = new LinearLayoutManager(this);
-        mLinearLayout = (LinearLayout) findViewById(R.id.layout_content);
-        mNestedScrollView = (NestedScrollView) findViewById(R.id.nested_scroll_view);
         mBottomNavigationView = (BottomNavigationView) findViewById(R.id.bottom_navigation_view);
+        mTotal = (TextView) findViewById(R.id.cart_total);
     }
     
     public void logic() {
@@ -64,43 +83,33 @@ public class ShopCartActivity extends AppCompatActivity {
         mRecycler.setHasFixedSize(true);
         mRecycler.setLayoutManager(llm);
         
-        int img[] = {
-            R.drawable.hamburguer_01,
-            R.drawable.hamburguer_02,
-            R.drawable.hamburguer_03,
-            R.drawable.hamburguer_04,
-            R.drawable.hamburguer_05,
-            R.drawable.hamburguer_06,
-            R.drawable.hamburguer_07,
-            R.drawable.hamburguer_08,
-            R.drawable.hamburguer_09,
-            R.drawable.hamburguer_10,
-            R.drawable.hamburguer_11
-        };
-        
-        for (int i = 0; img.length > i; i++) {
-            ProductArray array = new ProductArray();
-            array.setImage(img[i]);
-            array.setTitle("Lorem ipsum dolor sit amet, consectetur adipiscing elit.");
-            array.setAdrress("Endereço");
-            array.setCampanyName("Empresa nome");
-            array.setCampanyHour("Empresa Horário");
-
-            array_list.add(array);
-        }
-
-        mAdapter = new RecyclerViewAdapter(this, R.layout.content_category, array_list);
+        mAdapter = new CartAdapter(this);
         mRecycler.setAdapter(mAdapter);
         
+        mCart = CartStore.getInstance(this);
+        mCatalog = CatalogRepository.getInstance(this);
+        
         mAdapter.setOnItemClickListener(new OnItemClickListener() {
             @Override
-            public void onClick(int position) {}
+            public void onClick(int position) {
+                Intent intent = new Intent(ShopCartActivity.this, SingleActivity.class);
+                intent.putExtra("productID", mAdapter.getItem(position).getProductID());
+                startActivity(intent);
+            }
+        });
+        
+        mAdapter.setOnSelectionChangeListener(new OnSelectionChangeListener() {
+            @Override
+            public void onSelectionChange(int count) {
+                mToolbar.setTitle(count > 0 ? count + " selecionados" : "Carrinho de compras");
+                invalidateOptionsMenu();
+            }
         });
         
-        mNestedScrollView.setOnScrollChangeListener(new View.OnScrollChangeListener() {
+        mRecycler.addOnScrollListener(new RecyclerView.OnScrollListener() {
             @Override
-            public void onScrollChange(View v, int scrollX, int scrollY, int oldScrollX, int oldScrollY) {
-                if (scrollY == 0) {
+            public void onScrolled(RecyclerView recycler, int dx, int dy) {
+                if (!recycler.canScrollVertically(-1)) {
                     mAppBarLayout.setElevation(0);
                 } else {
                     int elevation = (int) getResources().getDimension(R.dimen.elevation_level_2);
@@ -111,6 +120,114 @@ public class ShopCartActivity extends AppCompatActivity {
         
     }
     
+    @Override
+    protected void onStart() {
+        super.onStart();
+        
+        mCart.addOnCartChangeListener(mCartListener);
+        refresh();
+    }
+    
+    @Override
+    protected void onStop() {
+        super.onStop();
+        
+        mCart.removeOnCartChangeListener(mCartListener);
+    }
+    
+    public void refresh() {
+        List<CartLine> lines = mCart.getLines();
+        
+        mAdapter.submitList(lines);
+        mTotal.setText(Money.format(mCart.getTotal()));
+        
+        long missing[] = mAdapter.getMissingProductIds(lines);
+        
+        if (missing.length == 0) {
+            return;
+        }
+        
+        mCatalog.loadProducts(missing, new OnProductsLoadListener() {
+            @Override
+            public void onLoad(List<ProductArray> products) {
+                mAdapter.addProducts(products);
+            }
+        });
+    }
+    
+    /*
+     * Takes lines out of the cart. Removals made while the undo snackbar is
+     * still up join its batch, so one "Desfazer" brings all of them back.
+     * Does nothing before the cart is loaded.
+     */
+    public void removeLines(long productIds[]) {
+        // Nothing to undo to yet; the actions are off until then.
+        if (!mCart.isLoaded()) {
+            return;
+        }
+        
+        if (mSnackbar == null || !mSnackbar.isShownOrQueued()) {
+            mRemoval = null;
+        }
+        
+        mAdapter.removeLines(productIds);
+        mRemoval = mCart.removeAll(productIds, mRemoval);
+        mTotal.setText(Money.format(mCart.getTotal()));
+        
+        if (mRemoval.size() == 0) {
+            return;
+        }
+        
+        String text = mRemoval.size() == 1 ? "Item removido" : mRemoval.size() + " itens removidos";
+        
+        if (mSnackbar != null && mSnackbar.isShownOrQueued()) {
+            mSnackbar.setText(text);
+            // Restarts the timeout.
+            mSnackbar.show();
+            return;
+        }
+        
+        final CartStore.Removal batch = mRemoval;
+        
+        mSnackbar = Snackbar.make(mRecycler, text, Snackbar.LENGTH_LONG);
+        mSnackbar.setAnchorView(mBottomNavigationView);
+        mSnackbar.setAction("Desfazer", new View.OnClickListener() {
+            @Override
+            public void onClick(View view) {
+                mCart.restore(batch);
+                refresh();
+            }
+        });
+        
+        mSnackbar.addCallback(new Snackbar.Callback() {
+            @Override
+            public void onDismissed(Snackbar snackbar, int event) {
+                if (snackbar == mSnackbar) {
+                    mSnackbar = null;
+                    mRemoval = null;
+                }
+            }
+        });
+        
+        mSnackbar.setActionTextColor(Color.YELLOW);
+        mSnackbar.show();
+    }
+    
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        
+        MenuInflater inflater = getMenuInflater();
+        inflater.inflate(R.menu.menu_shop_cart, menu);
+        
+        return true;
+    }
+    
+    @Override
+    public boolean onPrepareOptionsMenu(Menu menu) {
+        menu.findItem(R.id.menu_shop_cart_remove).setVisible(mAdapter.isSelecting() && mCart.isLoaded());
+        return true;
+    }
+    
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         
@@ -118,38 +235,39 @@ public class ShopCartActivity extends AppCompatActivity {
             case android.R.id.home:
                 onBackPressed();
             break;
+            
+            case R.id.menu_shop_cart_remove:
+                removeLines(mAdapter.getSelectedIds());
+            break;
         }
         
         return true;
     }
     
     public void enableSwipeToDeleteAndUndo() {
-        SwipeToDeleteCallback swipeToDeleteCallback = new SwipeToDeleteCallback(this) {
+        SwipeAction delete = new SwipeAction(this, R.id.swipe_delete, R.drawable.ic_delete, R.color.red_500);
+        
+        SwipeActionCallback swipeActionCallback = new SwipeActionCallback(new SwipeAction[] { delete }, null) {
             @Override
-            public void onSwiped(RecyclerView.ViewHolder holder, int i) {
-                
-                final int position = holder.getAdapterPosition();
-                final ProductArray item = mAdapter.getItem(position);
+            public int getMovementFlags(RecyclerView recycler, RecyclerView.ViewHolder holder) {
+                return mCart.isLoaded() ? super.getMovementFlags(recycler, holder) : 0;
+            }
+            
+            @Override
+            public void onAction(RecyclerView.ViewHolder holder, SwipeAction action) {
                 
-                mAdapter.removeItem(holder.getAdapterPosition());
+                int position = holder.getBindingAdapterPosition();
                 
-                Snackbar snackbar = Snackbar.make(mLinearLayout, "Item removido", Snackbar.LENGTH_LONG);
-                snackbar.setAnchorView(mBottomNavigationView);
-                snackbar.setAction("Desfazer", new View.OnClickListener() {
-                    @Override
-                    public void onClick(View view) {
-                        mAdapter.restoreItem(item, position);
-                        mRecycler.scrollToPosition(position);
-                    }
-                });
+                if (position == RecyclerView.NO_POSITION) {
+                    return;
+                }
                 
-                snackbar.setActionTextColor(Color.YELLOW);
-                snackbar.show();
+                removeLines(new long[] { mAdapter.getItem(position).getProductID() });
                 
             }
         };
         
-        ItemTouchHelper itemTouchhelper = new ItemTouchHelper(swipeToDeleteCallback);
+        ItemTouchHelper itemTouchhelper = new ItemTouchHelper(swipeActionCallback);
         itemTouchhelper.attachToRecyclerView(mRecycler);
     }
     
@@ -160,6 +278,11 @@ public class ShopCartActivity extends AppCompatActivity {
     @Override
     @MainThread
     public void onBackPressed() {
+        if (mAdapter.isSelecting()) {
+            mAdapter.clearSelection();
+            return;
+        }
+        
         super.onBackPressed();
         overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
     }
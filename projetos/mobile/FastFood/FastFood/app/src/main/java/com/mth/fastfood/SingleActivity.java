@@ -11,24 +11,37 @@ import androidx.annotation.MainThread;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import androidx.lifecycle.ViewModel;
+import androidx.recyclerview.widget.ConcatAdapter;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
-import com.google.android.material.appbar.CollapsingToolbarLayout;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
+import com.google.android.material.snackbar.Snackbar;
 import com.mth.fastfood.SingleActivity;
+import com.mth.fastfood.adapter.HeaderAdapter;
 import com.mth.fastfood.adapter.RecyclerViewAdapter;
+import com.mth.fastfood.inter.OnBindViewListener;
 import com.mth.fastfood.inter.OnItemClickListener;
+import com.mth.fastfood.inter.OnProductLoadListener;
+import com.mth.fastfood.inter.OnProductsLoadListener;
+import com.mth.fastfood.utils.CartStore;
+import com.mth.fastfood.utils.CatalogRepository;
+import com.mth.fastfood.utils.ImageLoader;
 import com.mth.fastfood.utils.ProductArray;
 import java.util.ArrayList;
+import java.util.List;
 
 public class SingleActivity extends AppCompatActivity {
     
+    private static final int RELATED_COUNT = 5;
+    
     private Toolbar mToolbar;
     
     private ImageView mImageView;
-    private int imageID;
+    private CatalogRepository mCatalog;
+    private ProductArray mProduct;
     
     private RecyclerView mRecycler;
+    private HeaderAdapter mHeaderAdapter;
     private RecyclerViewAdapter mAdapter;
     private LinearLayoutManager llm;
     private ArrayList<ProductArray> array_list = new ArrayList<ProductArray>();
@@ -43,19 +56,32 @@ public class SingleActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_single);
         
-        imageID = getIntent().getIntExtra("imageID", 0);
-        
-        main();
-        logic();
+        mCatalog = CatalogRepository.getInstance(this);
+        mCatalog.loadProduct(getIntent().getLongExtra("productID", 0), new OnProductLoadListener() {
+            @Override
+            public void onLoad(ProductArray product) {
+                if (isFinishing() || isDestroyed()) {
+                    return;
+                }
+                
+                mProduct = product;
+                
+                if (mProduct == null) {
+                    finish();
+                    return;
+                }
+                
+                main();
+                logic();
+            }
+        });
     }
     
     public void main() {
         mToolbar = (Toolbar) findViewById(R.id.toolbar);
-        mImageView = (ImageView) findViewById(R.id.collapse_image);
         mRecycler = (RecyclerView) findViewById(R.id.recycler_view);
         llm = new LinearLayoutManager(this);
         fab = (FloatingActionButton) findViewById(R.id.fab);
-        btnFavorito = (ImageButton) findViewById(R.id.btn_add_favorito);
     }
     
     public void logic() {
@@ -63,42 +89,68 @@ public class SingleActivity extends AppCompatActivity {
         setSupportActionBar(mToolbar);
         getSupportActionBar().setDisplayHomeAsUpEnabled(true);
         
-        mImageView.setImageResource(imageID);
-        
         mRecycler.setHasFixedSize(true);
         mRecycler.setLayoutManager(llm);
         
-        int img[] = {
-            R.drawable.hamburguer_01,
-            R.drawable.hamburguer_02,
-            R.drawable.hamburguer_03,
-            R.drawable.hamburguer_04,
-            R.drawable.hamburguer_05
-        };
-        
-        for (int i = 0; img.length > i; i++) {
-            ProductArray array = new ProductArray();
-            array.setImage(img[i]);
-            array.setTitle("Lorem ipsum dolor sit amet, consectetur adipiscing elit.");
-            array.setAdrress("Endereço da loja");
-            array.setCampanyName("Nome da loja");
-            array.setCampanyHour("Horário de funcionamento");
-            
-            array_list.add(array);
-        }
-        
+        mHeaderAdapter = new HeaderAdapter(this, R.layout.content_single);
         mAdapter = new RecyclerViewAdapter(this, R.layout.content_category, array_list);
-        mRecycler.setAdapter(mAdapter);
+        
+        ConcatAdapter.Config config = new ConcatAdapter.Config.Builder()
+            .setStableIdMode(ConcatAdapter.Config.StableIdMode.ISOLATED_STABLE_IDS)
+            .build();
+        mRecycler.setAdapter(new ConcatAdapter(config, mHeaderAdapter, mAdapter));
+        
+        mCatalog.loadFeatured(new OnProductsLoadListener() {
+            @Override
+            public void onLoad(List<ProductArray> products) {
+                mAdapter.submitList(products.subList(0, Math.min(RELATED_COUNT, products.size())));
+            }
+        });
         
         mAdapter.setOnItemClickListener(new OnItemClickListener() {
             @Override
             public void onClick(int position) {
                     Intent intent = new Intent(SingleActivity.this, SingleActivity.class);
-                    intent.putExtra("imageID", array_list.get(position).getImage());
+                    intent.putExtra("productID", array_list.get(position).getID());
                     startActivity(intent);
             }
         });
         
+        mHeaderAdapter.setOnBindViewListener(new OnBindViewListener() {
+            @Override
+            public void onBind(View view) {
+                header(view);
+            }
+        });
+        
+        fab.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View view) {
+                    CartStore.getInstance(SingleActivity.this).add(mProduct);
+                    
+                    Snackbar snackbar = Snackbar.make(mRecycler, "Adicionado ao carrinho", Snackbar.LENGTH_LONG);
+                    snackbar.setAnchorView(fab);
+                    snackbar.setAction("Ver carrinho", new View.OnClickListener() {
+                        @Override
+                        public void onClick(View view) {
+                            Intent intent = new Intent(SingleActivity.this, ShopCartActivity.class);
+                            startActivity(intent);
+                            overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
+                        }
+                    });
+                    snackbar.show();
+            }
+        });
+        
+    }
+    
+    public void header(View header) {
+        mImageView = (ImageView) header.findViewById(R.id.collapse_image);
+        btnFavorito = (ImageButton) header.findViewById(R.id.btn_add_favorito);
+        
+        ImageLoader.getInstance(this).load(mProduct.getImage(), R.layout.content_single, mImageView);
+        btnFavorito.setImageResource(isFavorite ? R.drawable.ic_favorite : R.drawable.ic_favorite_border);
+        
         btnFavorito.setOnClickListener(new View.OnClickListener() {
             @Override
                 public void onClick(View v) {
@@ -111,16 +163,6 @@ public class SingleActivity extends AppCompatActivity {
                     }
                 }
         });
-        
-        fab.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View view) {
-                    Intent intent = new Intent(SingleActivity.this, ShopCartActivity.class);
-                    startActivity(intent);
-                    overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
-            }
-        });
-        
     }
     
     @Override
@@ -135,6 +177,20 @@ public class SingleActivity extends AppCompatActivity {
         return true;
     }
     
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        
+        if (mImageView != null) {
+            ImageLoader.getInstance(this).clear(mImageView);
+        }
+        
+        // Recycles the related rows so they give their bitmaps back too.
+        if (mRecycler != null) {
+            mRecycler.swapAdapter(null, true);
+        }
+    }
+    
     @Override
     @MainThread
     public void onBackPressed() {
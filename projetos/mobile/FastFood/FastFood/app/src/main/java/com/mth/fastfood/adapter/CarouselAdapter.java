@@ -0,0 +1,114 @@
+package com.mth.fastfood.adapter;
+
+import android.content.Context;
+import android.os.Parcelable;
+import android.view.View;
+import android.view.ViewGroup;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import com.mth.fastfood.R;
+import com.mth.fastfood.inter.OnLoadListener;
+import com.mth.fastfood.utils.ViewPoolRegistry;
+
+/*
+ * Home feed section holding a horizontal list. The nested list shares the
+ * feed's RecycledViewPool, and its content is only requested (through the
+ * OnLoadListener) the first time the section is bound, i.e. scrolled into view.
+ */
+public class CarouselAdapter extends RecyclerView.Adapter<CarouselAdapter.ViewHolder> {
+    
+    private static final int INITIAL_PREFETCH_ITEM_COUNT = 4;
+    
+    private Context mContext;
+    private RecyclerView.Adapter<?> mAdapter;
+    private RecyclerView.RecycledViewPool mViewPool;
+    
+    private OnLoadListener mOnLoadListener;
+    private boolean loaded = false;
+    private Parcelable mScrollState;
+    
+    public CarouselAdapter(Context ctx, RecyclerView.Adapter<?> adapter, RecyclerView.RecycledViewPool pool) {
+        this.mContext = ctx;
+        this.mAdapter = adapter;
+        this.mViewPool = pool;
+        
+        setHasStableIds(true);
+    }
+    
+    @Override
+    public int getItemViewType(int position) {
+        return R.layout.content_home_carousel;
+    }
+    
+    @Override
+    public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        
+        View view = ViewPoolRegistry.getInstance(mContext).getInflater().inflate(R.layout.content_home_carousel, parent, false);
+        ViewHolder holder = new ViewHolder(view, mViewPool);
+        
+        return holder;
+    }
+    
+    @Override
+    public void onBindViewHolder(ViewHolder holder, int position) {
+        if (!loaded) {
+            loaded = true;
+            
+            if (mOnLoadListener != null) {
+                mOnLoadListener.onLoad();
+            }
+        }
+        
+        if (holder.mCarousel.getAdapter() != mAdapter) {
+            holder.mCarousel.swapAdapter(mAdapter, false);
+        }
+        
+        if (mScrollState != null) {
+            holder.mLayoutManager.onRestoreInstanceState(mScrollState);
+            mScrollState = null;
+        }
+    }
+    
+    @Override
+    public void onViewRecycled(ViewHolder holder) {
+        mScrollState = holder.mLayoutManager.onSaveInstanceState();
+        
+        // The holder may be pooled past this screen; don't let it keep the
+        // inner adapter alive, and give its tiles back to the pool.
+        holder.mCarousel.swapAdapter(null, true);
+    }
+    
+    @Override
+    public long getItemId(int position) {
+        return 0;
+    }
+    
+    @Override
+    public int getItemCount() {
+        return 1;
+    }
+    
+    public void setOnLoadListener(OnLoadListener listener) {
+        this.mOnLoadListener = listener;
+    }
+    
+    public static class ViewHolder extends RecyclerView.ViewHolder {
+        
+        RecyclerView mCarousel;
+        LinearLayoutManager mLayoutManager;
+        
+        public ViewHolder(View view, RecyclerView.RecycledViewPool pool) {
+            super(view);
+            
+            mCarousel = (RecyclerView) view.findViewById(R.id.carousel);
+            mLayoutManager = new LinearLayoutManager(view.getContext(), LinearLayoutManager.HORIZONTAL, false);
+            mLayoutManager.setInitialPrefetchItemCount(INITIAL_PREFETCH_ITEM_COUNT);
+            mLayoutManager.setRecycleChildrenOnDetach(true);
+            
+            mCarousel.setHasFixedSize(true);
+            mCarousel.setLayoutManager(mLayoutManager);
+            mCarousel.setRecycledViewPool(pool);
+        }
+        
+    }
+}
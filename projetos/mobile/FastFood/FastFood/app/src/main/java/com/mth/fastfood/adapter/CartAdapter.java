@@ -0,0 +1,387 @@
+package com.mth.fastfood.adapter;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import android.widget.TextView;
+import androidx.annotation.MainThread;
+import androidx.cardview.widget.CardView;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+import com.mth.fastfood.R;
+import com.mth.fastfood.inter.OnItemClickListener;
+import com.mth.fastfood.inter.OnSelectionChangeListener;
+import com.mth.fastfood.utils.CartLine;
+import com.mth.fastfood.utils.CartLineDiffCallback;
+import com.mth.fastfood.utils.ImageLoader;
+import com.mth.fastfood.utils.Money;
+import com.mth.fastfood.utils.ProductArray;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/*
+ * Rows of the shopping cart. Lines come from the CartStore, the products
+ * they show are looked up separately and may arrive later.
+ */
+public class CartAdapter extends RecyclerView.Adapter<CartAdapter.ViewHolder> {
+    
+    private static final Executor sDiffExecutor = Executors.newSingleThreadExecutor();
+    
+    private Context mContext;
+    private ArrayList<CartLine> array_list = new ArrayList<CartLine>();
+    private HashMap<Long, ProductArray> mProducts = new HashMap<Long, ProductArray>();
+    
+    // Product ids of the rows picked by a long press.
+    private HashSet<Long> mSelected = new HashSet<Long>();
+    
+    private OnItemClickListener mOnItemClickListener;
+    private OnSelectionChangeListener mOnSelectionChangeListener;
+    private ImageLoader mImageLoader;
+    private int mDefaultColor;
+    private int mSelectedColor;
+    
+    private Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private int maxGeneration = 0;
+    private int modCount = 0;
+    
+    public CartAdapter(Context ctx) {
+        this.mContext = ctx;
+        this.mImageLoader = ImageLoader.getInstance(ctx);
+        this.mDefaultColor = ContextCompat.getColor(ctx, R.color.white);
+        this.mSelectedColor = ContextCompat.getColor(ctx, R.color.grey_300);
+        
+        setHasStableIds(true);
+    }
+    
+    @Override
+    public long getItemId(int position) {
+        return array_list.get(position).getProductID();
+    }
+    
+    @Override
+    public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        
+        View view = LayoutInflater.from(mContext).inflate(R.layout.content_cart, parent, false);
+        ViewHolder holder = new ViewHolder(view);
+        
+        return holder;
+    }
+    
+    @Override
+    public void onBindViewHolder(ViewHolder holder, int position) {
+        CartLine line = array_list.get(position);
+        ProductArray product = mProducts.get(line.getProductID());
+        
+        holder.mCard.setCardBackgroundColor(mSelected.contains(line.getProductID()) ? mSelectedColor : mDefaultColor);
+        holder.mQuantity.setText(line.getQuantity() + "x " + Money.format(line.getUnitPrice()));
+        holder.mPrice.setText(Money.format(line.getSubtotal()));
+        
+        if (product == null) {
+            mImageLoader.clear(holder.mImage);
+            holder.mTitle.setText("");
+            holder.mCampany_name.setText("");
+            return;
+        }
+        
+        mImageLoader.load(product.getImage(), R.layout.content_cart, holder.mImage);
+        holder.mTitle.setText(product.getTitle());
+        holder.mCampany_name.setText(product.getCampanyName());
+    }
+    
+    @Override
+    public void onViewRecycled(ViewHolder holder) {
+        mImageLoader.clear(holder.mImage);
+    }
+    
+    @Override
+    public int getItemCount() {
+        return array_list.size();
+    }
+    
+    public CartLine getItem(int position) {
+        return array_list.get(position);
+    }
+    
+    public ProductArray getProduct(int position) {
+        return mProducts.get(array_list.get(position).getProductID());
+    }
+    
+    /*
+     * Product ids of the given lines whose product is not known yet. Takes
+     * the lines just submitted: the rows only follow once their diff is in.
+     */
+    public long[] getMissingProductIds(List<CartLine> lines) {
+        long ids[] = new long[lines.size()];
+        int count = 0;
+        
+        for (int i = 0; lines.size() > i; i++) {
+            if (!mProducts.containsKey(lines.get(i).getProductID())) {
+                ids[count++] = lines.get(i).getProductID();
+            }
+        }
+        
+        return Arrays.copyOf(ids, count);
+    }
+    
+    @MainThread
+    public void addProducts(List<ProductArray> products) {
+        HashSet<Long> ids = new HashSet<Long>();
+        
+        for (int i = 0; products.size() > i; i++) {
+            mProducts.put(products.get(i).getID(), products.get(i));
+            ids.add(products.get(i).getID());
+        }
+        
+        for (int i = 0; array_list.size() > i; i++) {
+            if (ids.contains(array_list.get(i).getProductID())) {
+                notifyItemChanged(i);
+            }
+        }
+    }
+    
+    /*
+     * Replaces the lines, diffing against the current ones on a background
+     * thread and notifying only the rows that changed. A newer submission
+     * makes any pending one obsolete.
+     */
+    @MainThread
+    public void submitList(List<CartLine> list) {
+        final int generation = ++maxGeneration;
+        
+        // Nothing to diff against: the first fill is a plain insert.
+        if (array_list.isEmpty()) {
+            array_list.addAll(list);
+            modCount++;
+            notifyItemRangeInserted(0, list.size());
+            retainSelected(list);
+            return;
+        }
+        
+        final int startModCount = modCount;
+        final ArrayList<CartLine> old_list = new ArrayList<CartLine>(array_list);
+        final ArrayList<CartLine> new_list = new ArrayList<CartLine>(list);
+        
+        sDiffExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final DiffUtil.DiffResult result = DiffUtil.calculateDiff(new CartLineDiffCallback(old_list, new_list), false);
+                
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != maxGeneration) {
+                            return;
+                        }
+                        
+                        if (startModCount != modCount) {
+                            // removeLines ran meanwhile, the diff base is stale.
+                            submitList(new_list);
+                            return;
+                        }
+                        
+                        array_list = new_list;
+                        modCount++;
+                        result.dispatchUpdatesTo(CartAdapter.this);
+                        retainSelected(new_list);
+                    }
+                });
+            }
+        });
+    }
+    
+    // Lines removed from elsewhere can't stay selected.
+    private void retainSelected(List<CartLine> list) {
+        HashSet<Long> ids = new HashSet<Long>();
+        
+        for (int i = 0; list.size() > i; i++) {
+            ids.add(list.get(i).getProductID());
+        }
+        
+        if (mSelected.retainAll(ids)) {
+            selectionChanged();
+        }
+    }
+    
+    /*
+     * Takes the lines of the given products out in one go. Rows next to
+     * each other leave in a single range notification, the ranges going
+     * from the bottom up so that the positions still to notify hold.
+     */
+    @MainThread
+    public void removeLines(long productIds[]) {
+        HashSet<Long> ids = new HashSet<Long>();
+        
+        for (int i = 0; productIds.length > i; i++) {
+            ids.add(productIds[i]);
+        }
+        
+        ArrayList<CartLine> old_list = array_list;
+        array_list = new ArrayList<CartLine>(old_list.size());
+        modCount++;
+        
+        for (int i = 0; old_list.size() > i; i++) {
+            if (!ids.contains(old_list.get(i).getProductID())) {
+                array_list.add(old_list.get(i));
+            }
+        }
+        
+        int end = old_list.size();
+        
+        while (end > 0) {
+            if (!ids.contains(old_list.get(end - 1).getProductID())) {
+                end--;
+                continue;
+            }
+            
+            int start = end - 1;
+            
+            while (start > 0 && ids.contains(old_list.get(start - 1).getProductID())) {
+                start--;
+            }
+            
+            notifyItemRangeRemoved(start, end - start);
+            end = start;
+        }
+        
+        if (mSelected.removeAll(ids)) {
+            selectionChanged();
+        }
+    }
+    
+    public boolean isSelecting() {
+        return !mSelected.isEmpty();
+    }
+    
+    public int getSelectedCount() {
+        return mSelected.size();
+    }
+    
+    // In list order.
+    public long[] getSelectedIds() {
+        long ids[] = new long[mSelected.size()];
+        int count = 0;
+        
+        for (int i = 0; array_list.size() > i; i++) {
+            if (mSelected.contains(array_list.get(i).getProductID())) {
+                ids[count++] = array_list.get(i).getProductID();
+            }
+        }
+        
+        return Arrays.copyOf(ids, count);
+    }
+    
+    @MainThread
+    public void toggleSelection(int position) {
+        long id = array_list.get(position).getProductID();
+        
+        if (!mSelected.remove(id)) {
+            mSelected.add(id);
+        }
+        
+        notifyItemChanged(position);
+        selectionChanged();
+    }
+    
+    @MainThread
+    public void clearSelection() {
+        if (mSelected.isEmpty()) {
+            return;
+        }
+        
+        for (int i = 0; array_list.size() > i; i++) {
+            if (mSelected.contains(array_list.get(i).getProductID())) {
+                notifyItemChanged(i);
+            }
+        }
+        
+        mSelected.clear();
+        selectionChanged();
+    }
+    
+    private void selectionChanged() {
+        if (mOnSelectionChangeListener != null) {
+            mOnSelectionChangeListener.onSelectionChange(mSelected.size());
+        }
+    }
+    
+    public void setOnItemClickListener(OnItemClickListener listener) {
+        this.mOnItemClickListener = listener;
+    }
+    
+    public void setOnSelectionChangeListener(OnSelectionChangeListener listener) {
+        this.mOnSelectionChangeListener = listener;
+    }
+    
+    public static class ViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener, View.OnLongClickListener {
+        
+        CardView mCard;
+        ImageView mImage;
+        TextView mTitle;
+        TextView mCampany_name;
+        TextView mQuantity;
+        TextView mPrice;
+        
+        public ViewHolder(View view) {
+            super(view);
+            
+            mCard = (CardView) view;
+            mImage = (ImageView) view.findViewById(R.id.image);
+            mTitle = (TextView) view.findViewById(R.id.title);
+            mCampany_name = (TextView) view.findViewById(R.id.company_name);
+            mQuantity = (TextView) view.findViewById(R.id.quantity);
+            mPrice = (TextView) view.findViewById(R.id.price);
+            
+            view.setOnClickListener(this);
+            view.setOnLongClickListener(this);
+        }
+        
+        @Override
+        public void onClick(View view) {
+            RecyclerView.Adapter<?> adapter = getBindingAdapter();
+            int position = getBindingAdapterPosition();
+            
+            if (!(adapter instanceof CartAdapter) || position == RecyclerView.NO_POSITION) {
+                return;
+            }
+            
+            CartAdapter cart = (CartAdapter) adapter;
+            
+            // While some rows are picked, a tap picks or drops one more.
+            if (cart.isSelecting()) {
+                cart.toggleSelection(position);
+                return;
+            }
+            
+            OnItemClickListener listener = cart.mOnItemClickListener;
+            
+            if (listener != null) {
+                listener.onClick(position);
+            }
+        }
+        
+        @Override
+        public boolean onLongClick(View view) {
+            RecyclerView.Adapter<?> adapter = getBindingAdapter();
+            int position = getBindingAdapterPosition();
+            
+            if (!(adapter instanceof CartAdapter) || position == RecyclerView.NO_POSITION) {
+                return false;
+            }
+            
+            ((CartAdapter) adapter).toggleSelection(position);
+            return true;
+        }
+        
+    }
+    
+}
@@ -0,0 +1,89 @@
+package com.mth.fastfood.adapter;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import androidx.recyclerview.widget.RecyclerView;
+import com.mth.fastfood.R;
+import com.mth.fastfood.inter.OnItemClickListener;
+import com.mth.fastfood.utils.CategoryArray;
+import com.mth.fastfood.utils.ViewPoolRegistry;
+import java.util.ArrayList;
+
+public class CategoryAdapter extends RecyclerView.Adapter<CategoryAdapter.ViewHolder> {
+    
+    private Context mContext;
+    private ArrayList<CategoryArray> array_list = new ArrayList<CategoryArray>();
+    
+    private OnItemClickListener mOnItemClickListener;
+    
+    public CategoryAdapter(Context ctx, ArrayList<CategoryArray> list) {
+        this.mContext = ctx;
+        this.array_list = list;
+    }
+    
+    @Override
+    public int getItemViewType(int position) {
+        // Unique across the home feed: its sections share one RecycledViewPool.
+        return R.layout.content_category_item;
+    }
+    
+    @Override
+    public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        
+        View view = ViewPoolRegistry.getInstance(mContext).getInflater().inflate(R.layout.content_category_item, parent, false);
+        ViewHolder holder = new ViewHolder(view);
+        
+        return holder;
+    }
+    
+    @Override
+    public void onBindViewHolder(ViewHolder holder, int position) {
+        holder.mImage.setImageResource(array_list.get(position).getIcon());
+        holder.mImage.setContentDescription(array_list.get(position).getName());
+    }
+    
+    @Override
+    public int getItemCount() {
+        return array_list.size();
+    }
+    
+    public CategoryArray getItem(int position) {
+        return this.array_list.get(position);
+    }
+    
+    public void setOnItemClickListener(OnItemClickListener listener) {
+        this.mOnItemClickListener = listener;
+    }
+    
+    public static class ViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
+        
+        ImageView mImage;
+        
+        public ViewHolder(View view) {
+            super(view);
+            
+            mImage = (ImageView) view.findViewById(R.id.image);
+            
+            view.setOnClickListener(this);
+        }
+        
+        @Override
+        public void onClick(View view) {
+            RecyclerView.Adapter<?> adapter = getBindingAdapter();
+            int position = getBindingAdapterPosition();
+            
+            if (!(adapter instanceof CategoryAdapter) || position == RecyclerView.NO_POSITION) {
+                return;
+            }
+            
+            OnItemClickListener listener = ((CategoryAdapter) adapter).mOnItemClickListener;
+            
+            if (listener != null) {
+                listener.onClick(position);
+            }
+        }
+        
+    }
+}
@@ -0,0 +1,71 @@
+package com.mth.fastfood.adapter;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import androidx.recyclerview.widget.RecyclerView;
+import com.mth.fastfood.inter.OnBindViewListener;
+
+/*
+ * Single row (category strip, product header) placed in front of a list
+ * through a ConcatAdapter, so the screen is one RecyclerView instead of a
+ * list nested in a NestedScrollView.
+ */
+public class HeaderAdapter extends RecyclerView.Adapter<HeaderAdapter.ViewHolder> {
+    
+    private Context mContext;
+    private int resLayout;
+    
+    private OnBindViewListener mOnBindViewListener;
+    
+    public HeaderAdapter(Context ctx, int res) {
+        this.mContext = ctx;
+        this.resLayout = res;
+        
+        setHasStableIds(true);
+    }
+    
+    @Override
+    public int getItemViewType(int position) {
+        return resLayout;
+    }
+    
+    @Override
+    public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        
+        View view = LayoutInflater.from(mContext).inflate(resLayout, parent, false);
+        ViewHolder holder = new ViewHolder(view);
+        
+        return holder;
+    }
+    
+    @Override
+    public void onBindViewHolder(ViewHolder holder, int position) {
+        if (mOnBindViewListener != null) {
+            mOnBindViewListener.onBind(holder.itemView);
+        }
+    }
+    
+    @Override
+    public long getItemId(int position) {
+        return 0;
+    }
+    
+    @Override
+    public int getItemCount() {
+        return 1;
+    }
+    
+    public void setOnBindViewListener(OnBindViewListener listener) {
+        this.mOnBindViewListener = listener;
+    }
+    
+    public class ViewHolder extends RecyclerView.ViewHolder {
+        
+        public ViewHolder(View view) {
+            super(view);
+        }
+        
+    }
+}
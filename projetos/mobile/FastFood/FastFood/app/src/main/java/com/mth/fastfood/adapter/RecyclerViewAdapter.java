@@ -1,35 +1,65 @@
 package com.mth.fastfood.adapter;
 
 import android.content.Context;
-import android.view.LayoutInflater;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import com.mth.fastfood.inter.OnItemClickListener;
+import com.mth.fastfood.utils.ImageLoader;
+import com.mth.fastfood.utils.PreInflater;
 import com.mth.fastfood.utils.ProductArray;
+import com.mth.fastfood.utils.ProductDiffCallback;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import com.mth.fastfood.R;
 
 public class RecyclerViewAdapter extends RecyclerView.Adapter<RecyclerViewAdapter.ViewHolder> {
     
+    private static final Executor sDiffExecutor = Executors.newSingleThreadExecutor();
+    
     private Context mContext;
     private int resLayout;
     private ArrayList<ProductArray> array_list = new ArrayList<ProductArray>();
     
     private OnItemClickListener mOnItemClickListener;
+    private ImageLoader mImageLoader;
+    private PreInflater mPreInflater;
+    
+    private Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private int maxGeneration = 0;
+    private int modCount = 0;
     
     public RecyclerViewAdapter(Context ctx, int res, ArrayList<ProductArray> list) {
         this.mContext = ctx;
         this.resLayout = res;
         this.array_list = list;
+        this.mImageLoader = ImageLoader.getInstance(ctx);
+        this.mPreInflater = PreInflater.getInstance(ctx);
+        
+        setHasStableIds(true);
+    }
+    
+    @Override
+    public long getItemId(int position) {
+        return array_list.get(position).getID();
+    }
+    
+    @Override
+    public int getItemViewType(int position) {
+        return resLayout;
     }
     
     @Override
     public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
         
-        View view = LayoutInflater.from(mContext).inflate(resLayout, parent, false);
+        View view = mPreInflater.inflate(resLayout, parent);
         ViewHolder holder = new ViewHolder(view);
         
         return holder;
@@ -38,13 +68,18 @@ public class RecyclerViewAdapter extends RecyclerView.Adapter<RecyclerViewAdapte
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
         
-        holder.mImage.setImageResource(array_list.get(position).getImage());
+        mImageLoader.load(array_list.get(position).getImage(), resLayout, holder.mImage);
         holder.mTitle.setText(array_list.get(position).getTitle());
         holder.mAdrress.setText(array_list.get(position).getAdrress());
         holder.mCampany_name.setText(array_list.get(position).getCampanyName());
         
     }
     
+    @Override
+    public void onViewRecycled(ViewHolder holder) {
+        mImageLoader.clear(holder.mImage);
+    }
+    
     @Override
     public int getItemCount() {
         return array_list.size();
@@ -60,19 +95,85 @@ public class RecyclerViewAdapter extends RecyclerView.Adapter<RecyclerViewAdapte
     
     public void removeItem(int position) {
         array_list.remove(position);
+        modCount++;
         notifyItemRemoved(position);
     }
     
     public void restoreItem(ProductArray item, int position) {
         array_list.add(position, item);
+        modCount++;
         notifyItemInserted(position);
     }
     
+    public void addItems(List<ProductArray> list) {
+        addItems(array_list.size(), list);
+    }
+    
+    public void addItems(int position, List<ProductArray> list) {
+        array_list.addAll(position, list);
+        modCount++;
+        notifyItemRangeInserted(position, list.size());
+    }
+    
+    public void removeItems(int position, int count) {
+        array_list.subList(position, position + count).clear();
+        modCount++;
+        notifyItemRangeRemoved(position, count);
+    }
+    
+    /*
+     * Replaces the list content, diffing against the current one on a
+     * background thread and notifying only the rows that changed. A newer
+     * submission makes any pending one obsolete.
+     */
+    public void submitList(List<ProductArray> list) {
+        final int generation = ++maxGeneration;
+        
+        // Nothing to diff against: the first fill is a plain insert.
+        if (array_list.isEmpty()) {
+            array_list.addAll(list);
+            modCount++;
+            notifyItemRangeInserted(0, list.size());
+            return;
+        }
+        
+        final int startModCount = modCount;
+        final ArrayList<ProductArray> old_list = new ArrayList<ProductArray>(array_list);
+        final ArrayList<ProductArray> new_list = new ArrayList<ProductArray>(list);
+        
+        sDiffExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final DiffUtil.DiffResult result = DiffUtil.calculateDiff(new ProductDiffCallback(old_list, new_list));
+                
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != maxGeneration) {
+                            return;
+                        }
+                        
+                        if (startModCount != modCount) {
+                            // removeItem/restoreItem ran meanwhile, the diff base is stale.
+                            submitList(new_list);
+                            return;
+                        }
+                        
+                        array_list.clear();
+                        array_list.addAll(new_list);
+                        modCount++;
+                        result.dispatchUpdatesTo(RecyclerViewAdapter.this);
+                    }
+                });
+            }
+        });
+    }
+    
     public void setOnItemClickListener(OnItemClickListener listener) {
         this.mOnItemClickListener = listener;
     }
     
-    public class ViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
+    public static class ViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
         
         ImageView mImage;
         TextView mTitle;
@@ -92,8 +193,19 @@ public class RecyclerViewAdapter extends RecyclerView.Adapter<RecyclerViewAdapte
         
         @Override
         public void onClick(View view) {
-            int position = getAdapterPosition();
-            mOnItemClickListener.onClick(position);
+            // Pooled holders move between screens: ask the adapter that bound this one.
+            RecyclerView.Adapter<?> adapter = getBindingAdapter();
+            int position = getBindingAdapterPosition();
+            
+            if (!(adapter instanceof RecyclerViewAdapter) || position == RecyclerView.NO_POSITION) {
+                return;
+            }
+            
+            OnItemClickListener listener = ((RecyclerViewAdapter) adapter).mOnItemClickListener;
+            
+            if (listener != null) {
+                listener.onClick(position);
+            }
         }
                 
     }
@@ -5,12 +5,19 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
+import androidx.annotation.MainThread;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import com.mth.fastfood.R;
 import com.mth.fastfood.adapter.RecyclerViewAdapterSuggestions;
 import com.mth.fastfood.inter.OnItemClickListener;
 import com.mth.fastfood.utils.SearchSuggestions;
+import com.mth.fastfood.utils.SuggestionDiffCallback;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 
 public class RecyclerViewAdapterSuggestions extends RecyclerView.Adapter<RecyclerViewAdapterSuggestions.ViewHolder> {
     
@@ -24,27 +31,51 @@ public class RecyclerViewAdapterSuggestions extends RecyclerView.Adapter<Recycle
         this.array_list = array;
     }
     
+    @Override
+    public int getItemViewType(int position) {
+        return array_list.get(position).getType();
+    }
+    
     @Override
     public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
         
         View view = LayoutInflater.from(mContext).inflate(R.layout.search_suggestions_item, parent, false);
         ViewHolder holder = new ViewHolder(view);
         
+        // The icon only depends on the view type, so binding leaves it alone.
+        holder.icon.setImageResource(viewType == SearchSuggestions.TYPE_HISTORIC ? R.drawable.ic_historic : R.drawable.ic_search);
+        
         return holder;
     }
     
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
         holder.name.setText(array_list.get(position).getName());
+    }
+    
+    /*
+     * Replaces the rows with the given ones. Rows with the same id and type
+     * are moved rather than rebound, and the pooled items no longer shown
+     * are recycled. The lists are a screenful at most, so the diff runs in
+     * place.
+     */
+    @MainThread
+    public void submitList(List<SearchSuggestions> list) {
+        ArrayList<SearchSuggestions> old_list = new ArrayList<SearchSuggestions>(array_list);
+        DiffUtil.DiffResult result = DiffUtil.calculateDiff(new SuggestionDiffCallback(old_list, list), true);
         
-        ImageView icon = holder.icon;
+        array_list.clear();
+        array_list.addAll(list);
+        result.dispatchUpdatesTo(this);
         
-        if (array_list.get(position).getType().equals(SearchSuggestions.TYPE_HISTORIC)) {
-            icon.setImageResource(R.drawable.ic_historic);
-        }else if (array_list.get(position).getType().equals(SearchSuggestions.TYPE_SUGGESTIONS)) {
-            icon.setImageResource(R.drawable.ic_search);
-        }
+        Set<SearchSuggestions> kept = Collections.newSetFromMap(new IdentityHashMap<SearchSuggestions, Boolean>());
+        kept.addAll(list);
         
+        for (int i = 0; old_list.size() > i; i++) {
+            if (!kept.contains(old_list.get(i))) {
+                old_list.get(i).recycle();
+            }
+        }
     }
     
     @Override
@@ -72,7 +103,13 @@ public class RecyclerViewAdapterSuggestions extends RecyclerView.Adapter<Recycle
         
         @Override
         public void onClick(View v) {
-            int position = getAdapterPosition();
+            int position = getBindingAdapterPosition();
+            
+            // Gone or moving while the suggestions diff animates.
+            if (position == RecyclerView.NO_POSITION) {
+                return;
+            }
+            
             mOnItemClickListener.onClick(position);
         }
         
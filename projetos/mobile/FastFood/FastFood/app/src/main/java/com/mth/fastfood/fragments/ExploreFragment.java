@@ -13,7 +13,12 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.mth.fastfood.R;
 import com.mth.fastfood.adapter.RecyclerViewAdapter;
+import com.mth.fastfood.inter.OnProductsLoadListener;
+import com.mth.fastfood.inter.PageSource;
+import com.mth.fastfood.utils.CatalogRepository;
 import com.mth.fastfood.utils.ProductArray;
+import com.mth.fastfood.utils.ProductPager;
+import com.mth.fastfood.utils.ViewPoolRegistry;
 import java.util.ArrayList;
 
 public class ExploreFragment extends Fragment {
@@ -23,6 +28,7 @@ public class ExploreFragment extends Fragment {
     
     private RecyclerView mRecycler;
     private RecyclerViewAdapter mAdapter;
+    private ProductPager mPager;
     private LinearLayoutManager llm;
     private ArrayList<ProductArray> array_list = new ArrayList<ProductArray>();
     
@@ -56,32 +62,33 @@ public class ExploreFragment extends Fragment {
         mRecycler.setHasFixedSize(true);
         mRecycler.setLayoutManager(llm);
         
-        int img[] = {
-            R.drawable.hamburguer_01,
-            R.drawable.hamburguer_02,
-            R.drawable.hamburguer_03,
-            R.drawable.hamburguer_04,
-            R.drawable.hamburguer_05,
-            R.drawable.hamburguer_06,
-            R.drawable.hamburguer_07,
-            R.drawable.hamburguer_08,
-            R.drawable.hamburguer_09
-        };
-        
-        for (int i = 0; img.length > i; i++) {
-            ProductArray array = new ProductArray();
-            array.setImage(img[i]);
-            array.setTitle("Lorem ipsum dolor sit amet, consectetur adipiscing elit.");
-            array.setAdrress("Endereço");
-            array.setCampanyName("Empresa nome");
-            array.setCampanyHour("Empresa Horário");
-            
-            array_list.add(array);
-        }
+        ViewPoolRegistry registry = ViewPoolRegistry.getInstance(mContext);
+        mRecycler.setRecycledViewPool(registry.getPool());
         
         mAdapter = new RecyclerViewAdapter(mContext, R.layout.content_home_cardview, array_list);
         mRecycler.setAdapter(mAdapter);
+        registry.prewarm(mRecycler, mAdapter, R.layout.content_home_cardview, getResources().getInteger(R.integer.view_pool_prewarm_rows));
+        
+        final CatalogRepository catalog = CatalogRepository.getInstance(mContext);
+        mPager = new ProductPager(mAdapter, new PageSource() {
+            @Override
+            public void loadPage(int fromPosition, int limit, OnProductsLoadListener listener) {
+                catalog.loadFeatured(fromPosition, limit, listener);
+            }
+        }, getResources().getInteger(R.integer.catalog_page_size), getResources().getInteger(R.integer.catalog_window_pages));
         
+        mRecycler.addOnScrollListener(mPager);
+        mPager.start();
+        
+    }
+    
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        
+        if (mRecycler != null) {
+            mRecycler.swapAdapter(null, true);
+        }
     }
     
 }
@@ -6,19 +6,28 @@ import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.LinearLayout;
 import android.widget.Toast;
 import androidx.annotation.CallSuper;
 import androidx.annotation.MainThread;
 import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.ConcatAdapter;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.mth.fastfood.R;
 import com.mth.fastfood.SingleActivity;
+import com.mth.fastfood.adapter.CarouselAdapter;
+import com.mth.fastfood.adapter.CategoryAdapter;
 import com.mth.fastfood.adapter.RecyclerViewAdapter;
 import com.mth.fastfood.inter.OnItemClickListener;
+import com.mth.fastfood.inter.OnLoadListener;
+import com.mth.fastfood.inter.OnProductsLoadListener;
+import com.mth.fastfood.utils.CategoryArray;
+import com.mth.fastfood.utils.CatalogRepository;
+import com.mth.fastfood.utils.CategoryRegistry;
 import com.mth.fastfood.utils.ProductArray;
+import com.mth.fastfood.utils.ViewPoolRegistry;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.zip.Inflater;
 import com.mth.fastfood.CategoryActivity;
 
@@ -27,16 +36,14 @@ public class HomeFragment extends Fragment {
     private Context mContext;
     private View mView;
     
-    private LinearLayout category_hamburge_1;
-    private LinearLayout category_hamburge_2;
-    private LinearLayout category_refri;
-    private LinearLayout category_pizza;
-    private LinearLayout category_variados;
-    
     private RecyclerView mRecycler;
+    private RecyclerView.RecycledViewPool mViewPool;
+    private CarouselAdapter mCarouselAdapter;
+    private CategoryAdapter mCategoryAdapter;
     private RecyclerViewAdapter mAdapter;
     private LinearLayoutManager llm;
     private ArrayList<ProductArray> array_list = new ArrayList<ProductArray>();
+    private ArrayList<CategoryArray> category_list = new ArrayList<CategoryArray>();
     
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup parent, Bundle bundle) {
@@ -60,11 +67,6 @@ public class HomeFragment extends Fragment {
     }
     
     public void main() {
-        category_hamburge_1 = (LinearLayout) mView.findViewById(R.id.category_hambuger_1);
-        category_hamburge_2 = (LinearLayout) mView.findViewById(R.id.category_hambuger_2);
-        category_refri = (LinearLayout) mView.findViewById(R.id.category_refri);
-        category_pizza = (LinearLayout) mView.findViewById(R.id.category_pizza);
-        category_variados = (LinearLayout) mView.findViewById(R.id.category_variados);
         mRecycler = (RecyclerView) mView.findViewById(R.id.recycler_view);
         llm = new LinearLayoutManager(mContext);
     }
@@ -74,87 +76,70 @@ public class HomeFragment extends Fragment {
         mRecycler.setHasFixedSize(true);
         mRecycler.setLayoutManager(llm);
         
-        int img[] = {
-            R.drawable.hamburguer_01,
-            R.drawable.hamburguer_02,
-            R.drawable.hamburguer_03,
-            R.drawable.hamburguer_04,
-            R.drawable.hamburguer_05,
-            R.drawable.hamburguer_06,
-            R.drawable.hamburguer_07,
-            R.drawable.hamburguer_08,
-            R.drawable.hamburguer_09
-        };
-        
-        for (int i = 0; img.length > i; i++) {
-            ProductArray array = new ProductArray();
-            array.setImage(img[i]);
-            array.setTitle("Lorem ipsum dolor sit amet, consectetur adipiscing elit.");
-            array.setAdrress("Endereço");
-            array.setCampanyName("Empresa nome");
-            array.setCampanyHour("Empresa Horário");
-            
-            array_list.add(array);
-        }
+        // One pool for the feed, the carousel nested in it and the other list
+        // screens; view types are layout ids, so isolation can be turned off.
+        ViewPoolRegistry registry = ViewPoolRegistry.getInstance(mContext);
+        mViewPool = registry.getPool();
+        mRecycler.setRecycledViewPool(mViewPool);
         
+        mCategoryAdapter = new CategoryAdapter(mContext, category_list);
+        mCarouselAdapter = new CarouselAdapter(mContext, mCategoryAdapter, mViewPool);
         mAdapter = new RecyclerViewAdapter(mContext, R.layout.content_home_cardview, array_list);
-        mRecycler.setAdapter(mAdapter);
         
-        mAdapter.setOnItemClickListener(new OnItemClickListener() {
-            @Override
-            public void onClick(int position) {
-                    Intent intent = new Intent(mContext, SingleActivity.class);
-                    intent.putExtra("imageID", array_list.get(position).getImage());
-                    startActivity(intent);
-            }
-        });
+        ConcatAdapter.Config config = new ConcatAdapter.Config.Builder()
+            .setIsolateViewTypes(false)
+            .setStableIdMode(ConcatAdapter.Config.StableIdMode.ISOLATED_STABLE_IDS)
+            .build();
+        mRecycler.setAdapter(new ConcatAdapter(config, mCarouselAdapter, mAdapter));
+        registry.prewarm(mRecycler, mAdapter, R.layout.content_home_cardview, getResources().getInteger(R.integer.view_pool_prewarm_rows));
         
-        category_hamburge_1.setOnClickListener(new View.OnClickListener() {
+        CatalogRepository.getInstance(mContext).loadFeatured(new OnProductsLoadListener() {
             @Override
-            public void onClick(View view) {
-                Intent intent = new Intent(mContext, CategoryActivity.class);
-                intent.putExtra("category_name", "Hambúrguer 1");
-                startActivity(intent);
-                //overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
+            public void onLoad(List<ProductArray> products) {
+                mAdapter.submitList(products);
             }
         });
         
-        category_hamburge_2.setOnClickListener(new View.OnClickListener() {
+        mAdapter.setOnItemClickListener(new OnItemClickListener() {
             @Override
-            public void onClick(View view) {
-                Intent intent = new Intent(mContext, CategoryActivity.class);
-                intent.putExtra("category_name", "Hambúrguer 2");
-                startActivity(intent);
+            public void onClick(int position) {
+                    Intent intent = new Intent(mContext, SingleActivity.class);
+                    intent.putExtra("productID", array_list.get(position).getID());
+                    startActivity(intent);
             }
         });
         
-        category_refri.setOnClickListener(new View.OnClickListener() {
+        mCarouselAdapter.setOnLoadListener(new OnLoadListener() {
             @Override
-            public void onClick(View view) {
-                Intent intent = new Intent(mContext, CategoryActivity.class);
-                intent.putExtra("category_name", "Refrigerante");
-                startActivity(intent);
+            public void onLoad() {
+                categories();
             }
         });
         
-        category_pizza.setOnClickListener(new View.OnClickListener() {
+        mCategoryAdapter.setOnItemClickListener(new OnItemClickListener() {
             @Override
-            public void onClick(View view) {
+            public void onClick(int position) {
                 Intent intent = new Intent(mContext, CategoryActivity.class);
-                intent.putExtra("category_name", "Pizza");
+                intent.putExtra("category_id", category_list.get(position).getID());
                 startActivity(intent);
             }
         });
         
-        category_variados.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View view) {
-                Intent intent = new Intent(mContext, CategoryActivity.class);
-                intent.putExtra("category_name", "Variados");
-                startActivity(intent);
-            }
-        });
+    }
+    
+    public void categories() {
+        category_list.addAll(CategoryRegistry.getInstance(mContext).getAll());
+        mCategoryAdapter.notifyItemRangeInserted(0, category_list.size());
+    }
+    
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
         
+        // Hand the rows to the shared pool for the next screen.
+        if (mRecycler != null) {
+            mRecycler.swapAdapter(null, true);
+        }
     }
     
     public void alerta(String string) {
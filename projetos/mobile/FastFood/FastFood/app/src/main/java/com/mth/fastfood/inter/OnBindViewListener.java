@@ -0,0 +1,9 @@
+package com.mth.fastfood.inter;
+
+import android.view.View;
+
+public interface OnBindViewListener {
+    
+    public void onBind(View view);
+    
+}
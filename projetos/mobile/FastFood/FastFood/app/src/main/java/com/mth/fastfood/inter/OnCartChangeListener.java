@@ -0,0 +1,8 @@
+package com.mth.fastfood.inter;
+
+public interface OnCartChangeListener {
+    
+    // Called on the main thread after the cart content changed or was loaded.
+    public void onChange();
+    
+}
@@ -0,0 +1,10 @@
+package com.mth.fastfood.inter;
+
+import java.util.List;
+
+public interface OnHistoryLoadListener {
+    
+    // Past queries, the most relevant first.
+    public void onLoad(List<String> queries);
+    
+}
@@ -0,0 +1,7 @@
+package com.mth.fastfood.inter;
+
+public interface OnLoadListener {
+    
+    public void onLoad();
+    
+}
@@ -0,0 +1,10 @@
+package com.mth.fastfood.inter;
+
+import com.mth.fastfood.utils.ProductArray;
+
+public interface OnProductLoadListener {
+    
+    // product is null when the id is not in the catalog.
+    public void onLoad(ProductArray product);
+    
+}
@@ -0,0 +1,10 @@
+package com.mth.fastfood.inter;
+
+import com.mth.fastfood.utils.ProductArray;
+import java.util.List;
+
+public interface OnProductsLoadListener {
+    
+    public void onLoad(List<ProductArray> products);
+    
+}
@@ -0,0 +1,11 @@
+package com.mth.fastfood.inter;
+
+import com.mth.fastfood.utils.ProductArray;
+import java.util.List;
+
+public interface OnSearchListener {
+    
+    // Only called for the text currently in the search box.
+    public void onResult(String query, List<ProductArray> products);
+    
+}
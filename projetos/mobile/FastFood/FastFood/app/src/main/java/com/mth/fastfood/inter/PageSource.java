@@ -0,0 +1,8 @@
+package com.mth.fastfood.inter;
+
+public interface PageSource {
+    
+    // Up to limit products starting at fromPosition; fewer means the end was reached.
+    public void loadPage(int fromPosition, int limit, OnProductsLoadListener listener);
+    
+}
@@ -0,0 +1,216 @@
+package com.mth.fastfood.utils;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.util.LruCache;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/*
+ * Process-wide bitmap cache bounded by bytes. Entries are keyed by the
+ * drawable id and the size the bitmap was decoded for.
+ *
+ * Bitmaps handed to views are reference counted through acquire/release,
+ * and go to the BitmapPool once they are neither cached nor shown.
+ */
+public class BitmapCache implements ComponentCallbacks2 {
+
+    private static BitmapCache sInstance;
+
+    private LruCache<Key, Bitmap> mCache;
+    private BitmapPool mPool;
+
+    // Bitmap does not override equals/hashCode, so both are identity based.
+    private Set<Bitmap> mCached = Collections.newSetFromMap(new IdentityHashMap<Bitmap, Boolean>());
+    private WeakHashMap<Bitmap, int[]> mInUse = new WeakHashMap<Bitmap, int[]>();
+
+    private BitmapCache(int maxBytes, BitmapPool pool) {
+        mPool = pool;
+        mCache = new LruCache<Key, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(Key key, Bitmap value) {
+                return value.getAllocationByteCount();
+            }
+
+            @Override
+            protected void entryRemoved(boolean evicted, Key key, Bitmap oldValue, Bitmap newValue) {
+                onEntryRemoved(oldValue, newValue);
+            }
+        };
+    }
+
+    public static synchronized BitmapCache getInstance(Context ctx) {
+        if (sInstance == null) {
+            // An eighth of the heap is the usual budget for an image memory cache.
+            int maxBytes = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 8);
+            sInstance = new BitmapCache(maxBytes, BitmapPool.getInstance());
+            ctx.getApplicationContext().registerComponentCallbacks(sInstance);
+        }
+
+        return sInstance;
+    }
+
+    public Bitmap get(int resId, int width, int height) {
+        return mCache.get(new Key(resId, width, height));
+    }
+
+    public void put(int resId, int width, int height, Bitmap bitmap) {
+        if (bitmap == null) {
+            return;
+        }
+
+        synchronized (this) {
+            mCached.add(bitmap);
+        }
+
+        mCache.put(new Key(resId, width, height), bitmap);
+    }
+
+    /*
+     * Like get(), but marks the bitmap as shown so it can't be pooled
+     * until release() is called for it.
+     */
+    public synchronized Bitmap acquire(int resId, int width, int height) {
+        Bitmap bitmap = mCache.get(new Key(resId, width, height));
+
+        if (bitmap != null) {
+            retain(bitmap);
+        }
+
+        return bitmap;
+    }
+
+    public synchronized void putAndAcquire(int resId, int width, int height, Bitmap bitmap) {
+        if (bitmap == null) {
+            return;
+        }
+
+        retain(bitmap);
+        put(resId, width, height, bitmap);
+    }
+
+    public synchronized void release(Bitmap bitmap) {
+        int[] count = mInUse.get(bitmap);
+
+        if (count == null) {
+            return;
+        }
+
+        if (--count[0] > 0) {
+            return;
+        }
+
+        mInUse.remove(bitmap);
+
+        if (!mCached.contains(bitmap)) {
+            mPool.put(bitmap);
+        }
+    }
+
+    /*
+     * One more reference to a bitmap the caller already holds, for work
+     * that outlives the caller's own release().
+     */
+    public synchronized void retain(Bitmap bitmap) {
+        int[] count = mInUse.get(bitmap);
+
+        if (count == null) {
+            mInUse.put(bitmap, new int[] {1});
+        }else {
+            count[0]++;
+        }
+    }
+
+    private synchronized void onEntryRemoved(Bitmap oldValue, Bitmap newValue) {
+        if (oldValue == newValue) {
+            return;
+        }
+
+        mCached.remove(oldValue);
+
+        if (!mInUse.containsKey(oldValue)) {
+            mPool.put(oldValue);
+        }
+    }
+
+    public void clear() {
+        mCache.evictAll();
+    }
+
+    public int size() {
+        return mCache.size();
+    }
+
+    public int maxSize() {
+        return mCache.maxSize();
+    }
+
+    public int hitCount() {
+        return mCache.hitCount();
+    }
+
+    public int missCount() {
+        return mCache.missCount();
+    }
+
+    public int evictionCount() {
+        return mCache.evictionCount();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_MODERATE) {
+            mCache.evictAll();
+            mPool.clear();
+        }else if (level >= TRIM_MEMORY_BACKGROUND || level == TRIM_MEMORY_RUNNING_LOW || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            mCache.trimToSize(mCache.maxSize() / 2);
+            mPool.trimToSize(mPool.maxSize() / 2);
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        mCache.evictAll();
+        mPool.clear();
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration config) {}
+
+    private static class Key {
+
+        private final int resId;
+        private final int width;
+        private final int height;
+
+        Key(int resId, int width, int height) {
+            this.resId = resId;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return resId == other.resId && width == other.width && height == other.height;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = resId;
+            result = 31 * result + width;
+            result = 31 * result + height;
+            return result;
+        }
+
+    }
+
+}
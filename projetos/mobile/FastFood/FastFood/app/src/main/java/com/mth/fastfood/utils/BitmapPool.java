@@ -0,0 +1,203 @@
+package com.mth.fastfood.utils;
+
+import android.graphics.Bitmap;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Mutable bitmaps no longer shown anywhere, bucketed by config and byte
+ * size, handed back to the decoder through BitmapFactory.Options.inBitmap.
+ */
+public class BitmapPool {
+
+    // Don't hand out a bitmap more than this many times bigger than needed.
+    private static final int MAX_SIZE_MULTIPLE = 4;
+
+    private static BitmapPool sInstance;
+
+    private HashMap<Bitmap.Config, TreeMap<Integer, ArrayDeque<Bitmap>>> mBuckets = new HashMap<Bitmap.Config, TreeMap<Integer, ArrayDeque<Bitmap>>>();
+    private LinkedList<Bitmap> mOrder = new LinkedList<Bitmap>();
+
+    private long maxBytes;
+    private long size = 0;
+
+    private int hitCount = 0;
+    private int missCount = 0;
+    private int putCount = 0;
+    private int evictionCount = 0;
+
+    private BitmapPool(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public static synchronized BitmapPool getInstance() {
+        if (sInstance == null) {
+            sInstance = new BitmapPool(Runtime.getRuntime().maxMemory() / 16);
+        }
+
+        return sInstance;
+    }
+
+    public synchronized void put(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable()) {
+            return;
+        }
+
+        int bytes = bitmap.getAllocationByteCount();
+
+        if (bytes > maxBytes) {
+            bitmap.recycle();
+            return;
+        }
+
+        bucket(bitmap.getConfig(), bytes, true).addLast(bitmap);
+        mOrder.addLast(bitmap);
+        size += bytes;
+        putCount++;
+
+        trimToSize(maxBytes);
+    }
+
+    /*
+     * A bitmap reconfigured to exactly width x height, or null. The caller
+     * owns it and must draw over every pixel (or erase it) before use.
+     */
+    public synchronized Bitmap get(int width, int height, Bitmap.Config config) {
+        Bitmap bitmap = take(config, width * height * bytesPerPixel(config));
+
+        if (bitmap == null) {
+            return null;
+        }
+
+        bitmap.reconfigure(width, height, config);
+        return bitmap;
+    }
+
+    /*
+     * A bitmap big enough to be passed as inBitmap for a decode of at least
+     * the given byte count. BitmapFactory reconfigures it itself.
+     */
+    public synchronized Bitmap getForDecode(int bytes, Bitmap.Config config) {
+        return take(config, bytes);
+    }
+
+    public synchronized void clear() {
+        trimToSize(0);
+    }
+
+    public synchronized void trimToSize(long target) {
+        while (size > target && !mOrder.isEmpty()) {
+            Bitmap eldest = mOrder.removeFirst();
+            int bytes = eldest.getAllocationByteCount();
+
+            removeFromBucket(eldest.getConfig(), bytes, eldest);
+            size -= bytes;
+            evictionCount++;
+            eldest.recycle();
+        }
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    public synchronized long maxSize() {
+        return maxBytes;
+    }
+
+    public synchronized int hitCount() {
+        return hitCount;
+    }
+
+    public synchronized int missCount() {
+        return missCount;
+    }
+
+    public synchronized int putCount() {
+        return putCount;
+    }
+
+    public synchronized int evictionCount() {
+        return evictionCount;
+    }
+
+    private Bitmap take(Bitmap.Config config, int bytes) {
+        TreeMap<Integer, ArrayDeque<Bitmap>> sizes = mBuckets.get(config);
+        Map.Entry<Integer, ArrayDeque<Bitmap>> entry = sizes == null ? null : sizes.ceilingEntry(bytes);
+
+        if (entry == null || entry.getKey() > (long) bytes * MAX_SIZE_MULTIPLE) {
+            missCount++;
+            return null;
+        }
+
+        Bitmap bitmap = entry.getValue().pollLast();
+
+        if (entry.getValue().isEmpty()) {
+            sizes.remove(entry.getKey());
+        }
+
+        mOrder.remove(bitmap);
+        size -= entry.getKey();
+        hitCount++;
+
+        return bitmap;
+    }
+
+    private ArrayDeque<Bitmap> bucket(Bitmap.Config config, int bytes, boolean create) {
+        TreeMap<Integer, ArrayDeque<Bitmap>> sizes = mBuckets.get(config);
+
+        if (sizes == null) {
+            if (!create) {
+                return null;
+            }
+
+            sizes = new TreeMap<Integer, ArrayDeque<Bitmap>>();
+            mBuckets.put(config, sizes);
+        }
+
+        ArrayDeque<Bitmap> bucket = sizes.get(bytes);
+
+        if (bucket == null && create) {
+            bucket = new ArrayDeque<Bitmap>();
+            sizes.put(bytes, bucket);
+        }
+
+        return bucket;
+    }
+
+    private void removeFromBucket(Bitmap.Config config, int bytes, Bitmap bitmap) {
+        ArrayDeque<Bitmap> bucket = bucket(config, bytes, false);
+
+        if (bucket == null) {
+            return;
+        }
+
+        Iterator<Bitmap> iterator = bucket.iterator();
+
+        while (iterator.hasNext()) {
+            if (iterator.next() == bitmap) {
+                iterator.remove();
+                break;
+            }
+        }
+
+        if (bucket.isEmpty()) {
+            mBuckets.get(config).remove(bytes);
+        }
+    }
+
+    public static int bytesPerPixel(Bitmap.Config config) {
+        if (config == Bitmap.Config.ALPHA_8) {
+            return 1;
+        }else if (config == Bitmap.Config.RGB_565 || config == Bitmap.Config.ARGB_4444) {
+            return 2;
+        }
+
+        return 4;
+    }
+
+}
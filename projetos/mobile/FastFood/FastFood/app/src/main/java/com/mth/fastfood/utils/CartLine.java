@@ -0,0 +1,65 @@
+package com.mth.fastfood.utils;
+
+/*
+ * One product in the cart. Prices are long minor units (cents) so totals
+ * add up exactly. Immutable: a quantity change makes a new line.
+ */
+public class CartLine {
+    
+    private final long productId;
+    private final int quantity;
+    private final long unitPrice;
+    
+    public CartLine(long productId, int quantity, long unitPrice) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+    }
+    
+    public long getProductID() {
+        return this.productId;
+    }
+    
+    public int getQuantity() {
+        return this.quantity;
+    }
+    
+    public long getUnitPrice() {
+        return this.unitPrice;
+    }
+    
+    public long getSubtotal() {
+        return this.unitPrice * this.quantity;
+    }
+    
+    public CartLine withQuantity(int value) {
+        return new CartLine(productId, value, unitPrice);
+    }
+    
+    public boolean isSameLine(CartLine other) {
+        return other != null && this.productId == other.productId;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        
+        if (!(obj instanceof CartLine)) {
+            return false;
+        }
+        
+        CartLine other = (CartLine) obj;
+        return productId == other.productId && quantity == other.quantity && unitPrice == other.unitPrice;
+    }
+    
+    @Override
+    public int hashCode() {
+        int result = (int) (productId ^ (productId >>> 32));
+        result = 31 * result + quantity;
+        result = 31 * result + (int) (unitPrice ^ (unitPrice >>> 32));
+        return result;
+    }
+    
+}
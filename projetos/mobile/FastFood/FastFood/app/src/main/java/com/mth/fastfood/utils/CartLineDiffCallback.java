@@ -0,0 +1,36 @@
+package com.mth.fastfood.utils;
+
+import androidx.recyclerview.widget.DiffUtil;
+import java.util.List;
+
+public class CartLineDiffCallback extends DiffUtil.Callback {
+    
+    private List<CartLine> old_list;
+    private List<CartLine> new_list;
+    
+    public CartLineDiffCallback(List<CartLine> oldList, List<CartLine> newList) {
+        this.old_list = oldList;
+        this.new_list = newList;
+    }
+    
+    @Override
+    public int getOldListSize() {
+        return old_list.size();
+    }
+    
+    @Override
+    public int getNewListSize() {
+        return new_list.size();
+    }
+    
+    @Override
+    public boolean areItemsTheSame(int oldPosition, int newPosition) {
+        return old_list.get(oldPosition).isSameLine(new_list.get(newPosition));
+    }
+    
+    @Override
+    public boolean areContentsTheSame(int oldPosition, int newPosition) {
+        return old_list.get(oldPosition).equals(new_list.get(newPosition));
+    }
+    
+}
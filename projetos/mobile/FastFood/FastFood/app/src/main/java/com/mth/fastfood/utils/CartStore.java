@@ -0,0 +1,529 @@
+package com.mth.fastfood.utils;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+import androidx.annotation.MainThread;
+import com.mth.fastfood.inter.OnCartChangeListener;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * The shopping cart, shared by the whole process. Changes apply to memory
+ * at once and are journaled to getFilesDir() behind the caller's back: the
+ * operations of a burst are written together a moment later and synced to
+ * disk once. The journal is replayed when the process starts again.
+ */
+public class CartStore {
+    
+    private static final String TAG = "CartStore";
+    
+    private static final String JOURNAL = "cart.journal";
+    private static final String JOURNAL_TMP = "cart.journal.tmp";
+    private static final String MAGIC = "cart-v2";
+    
+    // ADD <id> <quantity> <unit price>, INSERT <position> <id> <quantity> <unit price>,
+    // SET <id> <quantity>, REMOVE <id>.
+    private static final String ADD = "ADD";
+    private static final String INSERT = "INSERT";
+    private static final String SET = "SET";
+    private static final String REMOVE = "REMOVE";
+    
+    // Operations closer together than this share one write and one sync.
+    private static final long FLUSH_DELAY_MS = 300;
+    private static final int COMPACT_THRESHOLD = 500;
+    
+    // Anchor of a line that was first in the cart. Product ids are positive.
+    private static final long NO_ANCHOR = -1;
+    
+    private static CartStore sInstance;
+    
+    private File mDirectory;
+    private ScheduledExecutorService mExecutor;
+    private Handler mMainHandler = new Handler(Looper.getMainLooper());
+    
+    // Guarded by this.
+    private ArrayList<CartLine> mLines = new ArrayList<CartLine>();
+    private HashMap<Long, CartLine> mLinesById = new HashMap<Long, CartLine>();
+    // Index of each line in mLines, so no operation has to search the list.
+    private HashMap<Long, Integer> mPositions = new HashMap<Long, Integer>();
+    // Kept up to date by every operation, never summed over the lines.
+    private long total = 0;
+    private int itemCount = 0;
+    private ArrayList<String> mPending = new ArrayList<String>();
+    // Operations made before the journal was read, replayed over it.
+    private ArrayList<String> mEarly = new ArrayList<String>();
+    private boolean loaded = false;
+    private boolean flushScheduled = false;
+    
+    private ArrayList<OnCartChangeListener> mListeners = new ArrayList<OnCartChangeListener>();
+    
+    // Cart thread only.
+    private FileOutputStream mJournal;
+    private int journalOps = 0;
+    
+    // Tests make their own, over a scratch directory.
+    CartStore(File directory) {
+        this.mDirectory = directory;
+        this.mExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                return new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        runnable.run();
+                    }
+                }, "cart");
+            }
+        });
+        
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                load();
+            }
+        });
+    }
+    
+    public static synchronized CartStore getInstance(Context ctx) {
+        if (sInstance == null) {
+            sInstance = new CartStore(ctx.getApplicationContext().getFilesDir());
+        }
+        
+        return sInstance;
+    }
+    
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+    
+    public synchronized int size() {
+        return mLines.size();
+    }
+    
+    public synchronized List<CartLine> getLines() {
+        return new ArrayList<CartLine>(mLines);
+    }
+    
+    public synchronized CartLine getLine(long productId) {
+        return mLinesById.get(productId);
+    }
+    
+    // Sum of every line subtotal, in cents.
+    public synchronized long getTotal() {
+        return total;
+    }
+    
+    // Units over all lines.
+    public synchronized int getItemCount() {
+        return itemCount;
+    }
+    
+    // One more unit of the product; its line is created at the current price.
+    public void add(ProductArray product) {
+        change(ADD + " " + product.getID() + " 1 " + product.getPrice());
+    }
+    
+    // Puts a removed line back at position, for undo.
+    public void insert(int position, CartLine line) {
+        change(INSERT + " " + position + " " + line.getProductID() + " " + line.getQuantity() + " " + line.getUnitPrice());
+    }
+    
+    // A quantity below one removes the line.
+    public void setQuantity(long productId, int quantity) {
+        change(quantity > 0 ? SET + " " + productId + " " + quantity : REMOVE + " " + productId);
+    }
+    
+    public void remove(long productId) {
+        change(REMOVE + " " + productId);
+    }
+    
+    /*
+     * Removes the lines of every listed product as a single change: one
+     * notification and one journal write. The lines are recorded in batch,
+     * or in a new Removal when it is null, so that removals made one after
+     * the other can still be undone together.
+     *
+     * Until isLoaded() the lines aren't known and couldn't be put back, so
+     * nothing is removed and the batch comes back as it was.
+     */
+    public Removal removeAll(long productIds[], Removal batch) {
+        if (batch == null) {
+            batch = new Removal();
+        }
+        
+        synchronized (this) {
+            if (!loaded) {
+                return batch;
+            }
+            
+            for (int i = 0; productIds.length > i; i++) {
+                CartLine line = mLinesById.get(productIds[i]);
+                
+                if (line != null) {
+                    int position = mPositions.get(line.getProductID());
+                    batch.add(line, position == 0 ? NO_ANCHOR : mLines.get(position - 1).getProductID(), position);
+                }
+                
+                enqueue(REMOVE + " " + productIds[i]);
+            }
+        }
+        
+        notifyChanged();
+        return batch;
+    }
+    
+    /*
+     * Puts a batch back, last removed first, each line right after the
+     * product it followed when it was removed. The recorded position is
+     * only used once that product is gone too. Lines back in the cart
+     * meanwhile are left as they are.
+     */
+    public void restore(Removal batch) {
+        synchronized (this) {
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                CartLine line = batch.mLines.get(i);
+                Integer anchor = mPositions.get(batch.mAnchors[i]);
+                int position = anchor != null ? anchor + 1 : batch.mPositions[i];
+                
+                enqueue(INSERT + " " + position + " " + line.getProductID() + " " + line.getQuantity() + " " + line.getUnitPrice());
+            }
+        }
+        
+        notifyChanged();
+    }
+    
+    @MainThread
+    public void addOnCartChangeListener(OnCartChangeListener listener) {
+        mListeners.add(listener);
+    }
+    
+    @MainThread
+    public void removeOnCartChangeListener(OnCartChangeListener listener) {
+        mListeners.remove(listener);
+    }
+    
+    private void change(String op) {
+        synchronized (this) {
+            enqueue(op);
+        }
+        
+        notifyChanged();
+    }
+    
+    // Caller holds the lock.
+    private void enqueue(String op) {
+        if (loaded) {
+            apply(op);
+        }else {
+            mEarly.add(op);
+        }
+        
+        mPending.add(op);
+        
+        if (!flushScheduled) {
+            flushScheduled = true;
+            mExecutor.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    write();
+                }
+            }, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    // Caller holds the lock. Malformed or out of range operations are skipped.
+    private void apply(String op) {
+        String parts[] = op.split(" ");
+        
+        try {
+            if (ADD.equals(parts[0]) && parts.length == 4) {
+                long id = Long.parseLong(parts[1]);
+                int quantity = Integer.parseInt(parts[2]);
+                CartLine line = mLinesById.get(id);
+                
+                if (line == null) {
+                    put(mLines.size(), new CartLine(id, quantity, Long.parseLong(parts[3])));
+                }else {
+                    replace(line, line.withQuantity(line.getQuantity() + quantity));
+                }
+            }else if (INSERT.equals(parts[0]) && parts.length == 5) {
+                long id = Long.parseLong(parts[2]);
+                
+                if (!mLinesById.containsKey(id)) {
+                    int position = Math.max(0, Math.min(Integer.parseInt(parts[1]), mLines.size()));
+                    put(position, new CartLine(id, Integer.parseInt(parts[3]), Long.parseLong(parts[4])));
+                }
+            }else if (SET.equals(parts[0]) && parts.length == 3) {
+                CartLine line = mLinesById.get(Long.parseLong(parts[1]));
+                
+                if (line != null) {
+                    replace(line, line.withQuantity(Integer.parseInt(parts[2])));
+                }
+            }else if (REMOVE.equals(parts[0]) && parts.length == 2) {
+                CartLine line = mLinesById.remove(Long.parseLong(parts[1]));
+                
+                if (line != null) {
+                    int position = mPositions.remove(line.getProductID());
+                    mLines.remove(position);
+                    renumber(position);
+                    total -= line.getSubtotal();
+                    itemCount -= line.getQuantity();
+                }
+            }
+        }catch (NumberFormatException e) {
+            Log.w(TAG, "bad journal line: " + op);
+        }
+    }
+    
+    private void put(int position, CartLine line) {
+        mLines.add(position, line);
+        mLinesById.put(line.getProductID(), line);
+        renumber(position);
+        total += line.getSubtotal();
+        itemCount += line.getQuantity();
+    }
+    
+    private void replace(CartLine old, CartLine line) {
+        mLines.set(mPositions.get(old.getProductID()), line);
+        mLinesById.put(line.getProductID(), line);
+        total += line.getSubtotal() - old.getSubtotal();
+        itemCount += line.getQuantity() - old.getQuantity();
+    }
+    
+    // The lines from position on have moved. Costs what the list's own shift does.
+    private void renumber(int position) {
+        for (int i = position; mLines.size() > i; i++) {
+            mPositions.put(mLines.get(i).getProductID(), i);
+        }
+    }
+    
+    private void notifyChanged() {
+        mMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = mListeners.size() - 1; i >= 0; i--) {
+                    mListeners.get(i).onChange();
+                }
+            }
+        });
+    }
+    
+    private void load() {
+        File journal = new File(mDirectory, JOURNAL);
+        ArrayList<String> ops = new ArrayList<String>();
+        
+        if (journal.exists() && !read(journal, ops)) {
+            Log.w(TAG, "unreadable journal, starting with an empty cart");
+            ops.clear();
+        }
+        
+        synchronized (this) {
+            for (int i = 0; ops.size() > i; i++) {
+                apply(ops.get(i));
+            }
+            
+            for (int i = 0; mEarly.size() > i; i++) {
+                apply(mEarly.get(i));
+            }
+            
+            mEarly.clear();
+            loaded = true;
+            journalOps = ops.size();
+        }
+        
+        try {
+            if (journal.exists() && journalOps > 0) {
+                mJournal = new FileOutputStream(journal, true);
+            }else {
+                compact();
+            }
+        }catch (IOException e) {
+            Log.w(TAG, "journal unavailable, cart kept in memory only", e);
+            mJournal = null;
+        }
+        
+        // Changes made while loading.
+        write();
+        notifyChanged();
+    }
+    
+    private boolean read(File journal, ArrayList<String> ops) {
+        BufferedReader reader = null;
+        
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(journal), StandardCharsets.UTF_8));
+            
+            if (!MAGIC.equals(reader.readLine())) {
+                return false;
+            }
+            
+            String line;
+            
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    ops.add(line);
+                }
+            }
+            
+            return true;
+        }catch (IOException e) {
+            return false;
+        }finally {
+            closeQuietly(reader);
+        }
+    }
+    
+    // Cart thread only.
+    private void write() {
+        String ops[];
+        
+        synchronized (this) {
+            flushScheduled = false;
+            
+            if (mPending.isEmpty() || !loaded) {
+                return;
+            }
+            
+            ops = mPending.toArray(new String[mPending.size()]);
+            mPending.clear();
+        }
+        
+        if (mJournal == null) {
+            return;
+        }
+        
+        StringBuilder builder = new StringBuilder();
+        
+        for (int i = 0; ops.length > i; i++) {
+            builder.append(ops[i]).append('\n');
+        }
+        
+        try {
+            mJournal.write(builder.toString().getBytes(StandardCharsets.UTF_8));
+            mJournal.getFD().sync();
+            journalOps += ops.length;
+            
+            if (journalOps >= COMPACT_THRESHOLD) {
+                compact();
+            }
+        }catch (IOException e) {
+            Log.w(TAG, "journal write failed, cart kept in memory only", e);
+            closeQuietly(mJournal);
+            mJournal = null;
+        }
+    }
+    
+    // Loads if needed, writes what is pending and waits for both. Tests only.
+    void flush() throws Exception {
+        mExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                write();
+            }
+        }).get();
+    }
+    
+    /*
+     * Rewrites the journal as one ADD per line of the cart. Cart thread
+     * only, with nothing pending that is not already in memory.
+     */
+    private void compact() throws IOException {
+        closeQuietly(mJournal);
+        mJournal = null;
+        
+        List<CartLine> lines;
+        
+        synchronized (this) {
+            // Everything pending is part of the snapshot below.
+            mPending.clear();
+            lines = getLines();
+        }
+        
+        StringBuilder builder = new StringBuilder(MAGIC).append('\n');
+        
+        for (int i = 0; lines.size() > i; i++) {
+            CartLine line = lines.get(i);
+            builder.append(ADD).append(' ').append(line.getProductID()).append(' ').append(line.getQuantity())
+                .append(' ').append(line.getUnitPrice()).append('\n');
+        }
+        
+        mDirectory.mkdirs();
+        File tmp = new File(mDirectory, JOURNAL_TMP);
+        FileOutputStream out = new FileOutputStream(tmp);
+        
+        try {
+            out.write(builder.toString().getBytes(StandardCharsets.UTF_8));
+            out.getFD().sync();
+        }finally {
+            out.close();
+        }
+        
+        File journal = new File(mDirectory, JOURNAL);
+        
+        if (!tmp.renameTo(journal)) {
+            throw new IOException("rename " + tmp + " -> " + journal);
+        }
+        
+        journalOps = lines.size();
+        mJournal = new FileOutputStream(journal, true);
+    }
+    
+    /*
+     * Lines taken out by removeAll(), in removal order, each with the
+     * product it followed and the position it had at that moment. One
+     * Removal is one undo.
+     */
+    public static class Removal {
+        
+        private ArrayList<CartLine> mLines = new ArrayList<CartLine>();
+        private long mAnchors[] = new long[4];
+        private int mPositions[] = new int[4];
+        
+        private void add(CartLine line, long anchor, int position) {
+            if (mLines.size() == mAnchors.length) {
+                mAnchors = Arrays.copyOf(mAnchors, mAnchors.length * 2);
+                mPositions = Arrays.copyOf(mPositions, mPositions.length * 2);
+            }
+            
+            mAnchors[mLines.size()] = anchor;
+            mPositions[mLines.size()] = position;
+            mLines.add(line);
+        }
+        
+        public int size() {
+            return mLines.size();
+        }
+        
+    }
+    
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        
+        try {
+            closeable.close();
+        }catch (IOException e) {
+            // ignored
+        }
+    }
+    
+}
@@ -0,0 +1,150 @@
+package com.mth.fastfood.utils;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+
+/*
+ * On-device product catalog. Categories list their products through
+ * product_category, whose (category_id, position) primary key is the index
+ * category pages are read from. Images are stored as drawable entry names,
+ * since resource ids change between builds, and prices in cents.
+ *
+ * The tables are seeded from the bundled CatalogFile, and the database
+ * version is the file's data version, so shipping a catalog.json with another
+ * version, higher or lower, rebuilds them.
+ */
+public class CatalogDatabase extends SQLiteOpenHelper {
+    
+    private static final String NAME = "catalog.db";
+    
+    private static final String PRODUCT_COLUMNS = "p._id, p.image, p.title, p.adrress, p.campany_name, p.campany_hour, p.price";
+    
+    private CatalogFile mFile;
+    
+    public CatalogDatabase(Context ctx, CatalogFile file) {
+        super(ctx.getApplicationContext(), NAME, null, file.getDataVersion());
+        this.mFile = file;
+    }
+    
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        // Reads run on a background executor while the UI may write later on.
+        db.enableWriteAheadLogging();
+    }
+    
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE category (_id INTEGER PRIMARY KEY, name TEXT NOT NULL)");
+        db.execSQL("CREATE UNIQUE INDEX category_name ON category (name)");
+        
+        db.execSQL("CREATE TABLE product (_id INTEGER PRIMARY KEY, image TEXT NOT NULL UNIQUE, title TEXT NOT NULL, "
+            + "adrress TEXT, campany_name TEXT, campany_hour TEXT, price INTEGER NOT NULL)");
+        db.execSQL("CREATE INDEX product_title ON product (title)");
+        
+        db.execSQL("CREATE TABLE product_category (category_id INTEGER NOT NULL, position INTEGER NOT NULL, "
+            + "product_id INTEGER NOT NULL, PRIMARY KEY (category_id, position)) WITHOUT ROWID");
+        db.execSQL("CREATE INDEX product_category_product ON product_category (product_id)");
+        
+        db.execSQL("CREATE TABLE featured (position INTEGER PRIMARY KEY, product_id INTEGER NOT NULL)");
+        
+        seed(db);
+    }
+    
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        rebuild(db);
+    }
+    
+    @Override
+    public void onDowngrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // An older catalog or an older app: the default would throw and leave no catalog.
+        rebuild(db);
+    }
+    
+    private void rebuild(SQLiteDatabase db) {
+        // Everything here comes from the catalog file, so it is simply rebuilt.
+        db.execSQL("DROP TABLE IF EXISTS featured");
+        db.execSQL("DROP TABLE IF EXISTS product_category");
+        db.execSQL("DROP TABLE IF EXISTS product");
+        db.execSQL("DROP TABLE IF EXISTS category");
+        onCreate(db);
+    }
+    
+    private void seed(SQLiteDatabase db) {
+        // One compiled statement per table, rebound for every row.
+        SQLiteStatement insertCategory = db.compileStatement("INSERT INTO category (_id, name) VALUES (?, ?)");
+        SQLiteStatement insertProduct = db.compileStatement("INSERT INTO product (_id, image, title, adrress, campany_name, campany_hour, price) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        SQLiteStatement insertLink = db.compileStatement("INSERT INTO product_category (category_id, position, product_id) VALUES (?, ?, ?)");
+        SQLiteStatement insertFeatured = db.compileStatement("INSERT INTO featured (position, product_id) VALUES (?, ?)");
+        
+        try {
+            for (int i = 0; mFile.getProductCount() > i; i++) {
+                insertProduct.bindLong(1, mFile.getProductId(i));
+                insertProduct.bindString(2, mFile.getProductImage(i));
+                insertProduct.bindString(3, mFile.getProductTitle(i));
+                insertProduct.bindString(4, mFile.getProductAdrress(i));
+                insertProduct.bindString(5, mFile.getProductCampanyName(i));
+                insertProduct.bindString(6, mFile.getProductCampanyHour(i));
+                insertProduct.bindLong(7, mFile.getProductPrice(i));
+                insertProduct.executeInsert();
+            }
+            
+            for (int i = 0; mFile.getCategoryCount() > i; i++) {
+                insertCategory.bindLong(1, mFile.getCategoryId(i));
+                insertCategory.bindString(2, mFile.getCategoryName(i));
+                insertCategory.executeInsert();
+                
+                for (int j = 0; mFile.getCategorySize(i) > j; j++) {
+                    insertLink.bindLong(1, mFile.getCategoryId(i));
+                    insertLink.bindLong(2, j);
+                    insertLink.bindLong(3, mFile.getProductId(mFile.getCategoryProduct(i, j)));
+                    insertLink.executeInsert();
+                }
+            }
+            
+            for (int i = 0; mFile.getFeaturedCount() > i; i++) {
+                insertFeatured.bindLong(1, i);
+                insertFeatured.bindLong(2, mFile.getProductId(mFile.getFeaturedProduct(i)));
+                insertFeatured.executeInsert();
+            }
+        }finally {
+            insertCategory.close();
+            insertProduct.close();
+            insertLink.close();
+            insertFeatured.close();
+        }
+    }
+    
+    /*
+     * Queries below always use the same SQL with bound arguments, so each is
+     * compiled once and then served from the connection's statement cache.
+     */
+    
+    public Cursor queryProduct(long id) {
+        return getReadableDatabase().rawQuery("SELECT " + PRODUCT_COLUMNS + " FROM product p WHERE p._id = ?",
+            new String[] {String.valueOf(id)});
+    }
+    
+    // Products at position >= fromPosition, in order; the cursor only ever holds one page.
+    public Cursor queryCategory(int categoryId, int fromPosition, int limit) {
+        return getReadableDatabase().rawQuery("SELECT " + PRODUCT_COLUMNS + " FROM product_category pc "
+            + "JOIN product p ON p._id = pc.product_id WHERE pc.category_id = ? AND pc.position >= ? "
+            + "ORDER BY pc.position LIMIT ?",
+            new String[] {String.valueOf(categoryId), String.valueOf(fromPosition), String.valueOf(limit)});
+    }
+    
+    public Cursor queryFeatured() {
+        return getReadableDatabase().rawQuery("SELECT " + PRODUCT_COLUMNS + " FROM featured f "
+            + "JOIN product p ON p._id = f.product_id ORDER BY f.position", null);
+    }
+    
+    public Cursor queryFeatured(int fromPosition, int limit) {
+        return getReadableDatabase().rawQuery("SELECT " + PRODUCT_COLUMNS + " FROM featured f "
+            + "JOIN product p ON p._id = f.product_id WHERE f.position >= ? ORDER BY f.position LIMIT ?",
+            new String[] {String.valueOf(fromPosition), String.valueOf(limit)});
+    }
+    
+}
@@ -0,0 +1,179 @@
+package com.mth.fastfood.utils;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/*
+ * Read-only view of assets/catalog.bin, generated from catalog/catalog.json
+ * by the generateCatalog Gradle task (the layout is described there).
+ *
+ * The asset is stored uncompressed and memory-mapped. Records have a fixed
+ * width, so every accessor reads at a computed offset and nothing is parsed
+ * up front; strings are decoded only when asked for.
+ */
+public class CatalogFile {
+    
+    private static final String ASSET = "catalog.bin";
+    
+    private static final int MAGIC = 0x46464354;
+    private static final int FORMAT_VERSION = 3;
+    
+    private static final int HEADER_SIZE = 8 * 4;
+    private static final int CATEGORY_SIZE = 5 * 4;
+    private static final int PRODUCT_SIZE = 7 * 4;
+    
+    private static CatalogFile sInstance;
+    
+    private ByteBuffer mBuffer;
+    
+    private int dataVersion;
+    private int categoryCount;
+    private int productCount;
+    private int featuredCount;
+    
+    private int categoriesOffset;
+    private int productsOffset;
+    private int linksOffset;
+    private int featuredOffset;
+    private int stringsOffset;
+    
+    CatalogFile(ByteBuffer buffer) throws IOException {
+        this.mBuffer = buffer;
+        
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException(ASSET + ": not a catalog file");
+        }
+        
+        dataVersion = buffer.getInt(8);
+        categoryCount = buffer.getInt(12);
+        productCount = buffer.getInt(16);
+        int linkCount = buffer.getInt(20);
+        featuredCount = buffer.getInt(24);
+        stringsOffset = buffer.getInt(28);
+        
+        categoriesOffset = HEADER_SIZE;
+        productsOffset = categoriesOffset + categoryCount * CATEGORY_SIZE;
+        linksOffset = productsOffset + productCount * PRODUCT_SIZE;
+        featuredOffset = linksOffset + linkCount * 4;
+        
+        if (featuredOffset + featuredCount * 4 != stringsOffset || stringsOffset > buffer.capacity()) {
+            throw new IOException(ASSET + ": truncated or inconsistent");
+        }
+    }
+    
+    public static synchronized CatalogFile getInstance(Context ctx) throws IOException {
+        if (sInstance == null) {
+            sInstance = open(ctx.getApplicationContext());
+        }
+        
+        return sInstance;
+    }
+    
+    private static CatalogFile open(Context ctx) throws IOException {
+        AssetFileDescriptor descriptor = ctx.getAssets().openFd(ASSET);
+        FileInputStream in = descriptor.createInputStream();
+        
+        try {
+            FileChannel channel = in.getChannel();
+            // The mapping stays valid after the channel is closed.
+            return new CatalogFile(channel.map(FileChannel.MapMode.READ_ONLY, descriptor.getStartOffset(), descriptor.getLength()));
+        }finally {
+            in.close();
+            descriptor.close();
+        }
+    }
+    
+    public int getDataVersion() {
+        return dataVersion;
+    }
+    
+    public int getCategoryCount() {
+        return categoryCount;
+    }
+    
+    public int getCategoryId(int index) {
+        return mBuffer.getInt(categoriesOffset + index * CATEGORY_SIZE);
+    }
+    
+    public String getCategoryName(int index) {
+        return string(mBuffer.getInt(categoriesOffset + index * CATEGORY_SIZE + 4));
+    }
+    
+    // Drawable entry name, resolved by the caller.
+    public String getCategoryIcon(int index) {
+        return string(mBuffer.getInt(categoriesOffset + index * CATEGORY_SIZE + 8));
+    }
+    
+    public int getCategorySize(int index) {
+        return mBuffer.getInt(categoriesOffset + index * CATEGORY_SIZE + 16);
+    }
+    
+    // Index (not id) of the product at the given position of the category.
+    public int getCategoryProduct(int index, int position) {
+        int first = mBuffer.getInt(categoriesOffset + index * CATEGORY_SIZE + 12);
+        return mBuffer.getInt(linksOffset + (first + position) * 4);
+    }
+    
+    public int getFeaturedCount() {
+        return featuredCount;
+    }
+    
+    public int getFeaturedProduct(int position) {
+        return mBuffer.getInt(featuredOffset + position * 4);
+    }
+    
+    public int getProductCount() {
+        return productCount;
+    }
+    
+    public long getProductId(int index) {
+        return mBuffer.getInt(productsOffset + index * PRODUCT_SIZE);
+    }
+    
+    public String getProductImage(int index) {
+        return productString(index, 1);
+    }
+    
+    public String getProductTitle(int index) {
+        return productString(index, 2);
+    }
+    
+    public String getProductAdrress(int index) {
+        return productString(index, 3);
+    }
+    
+    public String getProductCampanyName(int index) {
+        return productString(index, 4);
+    }
+    
+    public String getProductCampanyHour(int index) {
+        return productString(index, 5);
+    }
+    
+    public long getProductPrice(int index) {
+        return mBuffer.getInt(productsOffset + index * PRODUCT_SIZE + 6 * 4);
+    }
+    
+    private String productString(int index, int field) {
+        return string(mBuffer.getInt(productsOffset + index * PRODUCT_SIZE + field * 4));
+    }
+    
+    private String string(int offset) {
+        int position = stringsOffset + offset;
+        int length = mBuffer.getShort(position) & 0xffff;
+        byte bytes[] = new byte[length];
+        
+        // A duplicate has its own position, so concurrent readers don't interfere.
+        ByteBuffer buffer = mBuffer.duplicate();
+        buffer.position(position + 2);
+        buffer.get(bytes);
+        
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+}
@@ -0,0 +1,285 @@
+package com.mth.fastfood.utils;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.database.Cursor;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import androidx.annotation.MainThread;
+import com.mth.fastfood.inter.OnProductLoadListener;
+import com.mth.fastfood.inter.OnProductsLoadListener;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/*
+ * Shared access to the CatalogDatabase. Queries run on one background
+ * thread and answer on the main thread. Products are immutable and kept per
+ * id for the life of the process, so every screen gets the same objects
+ * and a product already seen is answered without touching the database.
+ */
+public class CatalogRepository {
+    
+    private static CatalogRepository sInstance;
+    
+    private CatalogDatabase mDatabase;
+    private CatalogFile mFile;
+    private SearchIndex mSearchIndex;
+    private Resources mResources;
+    private String packageName;
+    private ExecutorService mExecutor;
+    private Handler mMainHandler = new Handler(Looper.getMainLooper());
+    
+    private HashMap<Long, ProductArray> mProducts = new HashMap<Long, ProductArray>();
+    private volatile List<ProductArray> mFeatured;
+    
+    private CatalogRepository(Context ctx) {
+        Context app = ctx.getApplicationContext();
+        
+        try {
+            this.mFile = CatalogFile.getInstance(app);
+            this.mDatabase = new CatalogDatabase(app, mFile);
+        }catch (IOException e) {
+            // The file is generated into the APK at build time.
+            throw new IllegalStateException("catalog asset unreadable", e);
+        }
+        
+        this.mResources = app.getResources();
+        this.packageName = app.getPackageName();
+        this.mExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                return new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        runnable.run();
+                    }
+                }, "catalog");
+            }
+        });
+    }
+    
+    public static synchronized CatalogRepository getInstance(Context ctx) {
+        if (sInstance == null) {
+            sInstance = new CatalogRepository(ctx);
+        }
+        
+        return sInstance;
+    }
+    
+    // Only products already loaded; null otherwise.
+    public synchronized ProductArray getById(long id) {
+        return mProducts.get(id);
+    }
+    
+    @MainThread
+    public void loadProduct(final long id, final OnProductLoadListener listener) {
+        ProductArray cached = getById(id);
+        
+        if (cached != null) {
+            listener.onLoad(cached);
+            return;
+        }
+        
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                List<ProductArray> products = read(mDatabase.queryProduct(id));
+                final ProductArray product = products.isEmpty() ? null : products.get(0);
+                
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onLoad(product);
+                    }
+                });
+            }
+        });
+    }
+    
+    @MainThread
+    public void loadFeatured(final OnProductsLoadListener listener) {
+        if (mFeatured != null) {
+            listener.onLoad(mFeatured);
+            return;
+        }
+        
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (mFeatured == null) {
+                    mFeatured = Collections.unmodifiableList(read(mDatabase.queryFeatured()));
+                }
+                
+                post(listener, mFeatured);
+            }
+        });
+    }
+    
+    @MainThread
+    public void loadFeatured(final int fromPosition, final int limit, final OnProductsLoadListener listener) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                post(listener, Collections.unmodifiableList(read(mDatabase.queryFeatured(fromPosition, limit))));
+            }
+        });
+    }
+    
+    @MainThread
+    public void loadCategory(int categoryId, OnProductsLoadListener listener) {
+        loadCategory(categoryId, 0, Integer.MAX_VALUE, listener);
+    }
+    
+    /*
+     * Up to limit products of the category starting at fromPosition. A page
+     * shorter than limit is the last one.
+     */
+    @MainThread
+    public void loadCategory(final int categoryId, final int fromPosition, final int limit, final OnProductsLoadListener listener) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                post(listener, Collections.unmodifiableList(read(mDatabase.queryCategory(categoryId, fromPosition, limit))));
+            }
+        });
+    }
+    
+    // The products with the given ids in the same order, unknown ids skipped.
+    @MainThread
+    public void loadProducts(final long ids[], final OnProductsLoadListener listener) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                post(listener, Collections.unmodifiableList(products(ids)));
+            }
+        });
+    }
+    
+    // Builds the search index ahead of the first query.
+    @MainThread
+    public void prepareSearch() {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                searchIndex();
+            }
+        });
+    }
+    
+    /*
+     * Up to limit products matching the query: exact prefix matches first,
+     * then typo-tolerant ones ranked by SearchIndex.searchFuzzy(). Cancelling
+     * the future before it runs skips the query.
+     */
+    @MainThread
+    public Future<?> search(final String query, final int limit, final OnProductsLoadListener listener) {
+        return mExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                post(listener, Collections.unmodifiableList(products(searchIds(query, limit))));
+            }
+        });
+    }
+    
+    private long[] searchIds(String query, int limit) {
+        SearchIndex index = searchIndex();
+        long exact[] = index.search(query, limit);
+        
+        if (exact.length == limit) {
+            return exact;
+        }
+        
+        long fuzzy[] = index.searchFuzzy(query, limit);
+        long ids[] = Arrays.copyOf(exact, limit);
+        int count = exact.length;
+        HashSet<Long> seen = new HashSet<Long>();
+        
+        for (int i = 0; exact.length > i; i++) {
+            seen.add(exact[i]);
+        }
+        
+        for (int i = 0; fuzzy.length > i && count < limit; i++) {
+            if (seen.add(fuzzy[i])) {
+                ids[count++] = fuzzy[i];
+            }
+        }
+        
+        return Arrays.copyOf(ids, count);
+    }
+    
+    // Catalog thread only.
+    private SearchIndex searchIndex() {
+        if (mSearchIndex == null) {
+            mSearchIndex = SearchIndex.fromCatalog(mFile);
+        }
+        
+        return mSearchIndex;
+    }
+    
+    private List<ProductArray> products(long ids[]) {
+        ArrayList<ProductArray> list = new ArrayList<ProductArray>(ids.length);
+        
+        for (int i = 0; ids.length > i; i++) {
+            ProductArray product = getById(ids[i]);
+            
+            if (product == null) {
+                List<ProductArray> read = read(mDatabase.queryProduct(ids[i]));
+                product = read.isEmpty() ? null : read.get(0);
+            }
+            
+            if (product != null) {
+                list.add(product);
+            }
+        }
+        
+        return list;
+    }
+    
+    private void post(final OnProductsLoadListener listener, final List<ProductArray> products) {
+        mMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                listener.onLoad(products);
+            }
+        });
+    }
+    
+    private List<ProductArray> read(Cursor cursor) {
+        ArrayList<ProductArray> list = new ArrayList<ProductArray>(cursor.getCount());
+        
+        try {
+            while (cursor.moveToNext()) {
+                list.add(product(cursor));
+            }
+        }finally {
+            cursor.close();
+        }
+        
+        return list;
+    }
+    
+    private synchronized ProductArray product(Cursor cursor) {
+        long id = cursor.getLong(0);
+        ProductArray product = mProducts.get(id);
+        
+        if (product == null) {
+            int image = mResources.getIdentifier(cursor.getString(1), "drawable", packageName);
+            product = new ProductArray(id, image, cursor.getString(2), cursor.getString(3), cursor.getString(4), cursor.getString(5), cursor.getLong(6));
+            mProducts.put(id, product);
+        }
+        
+        return product;
+    }
+    
+}
@@ -0,0 +1,35 @@
+package com.mth.fastfood.utils;
+
+public class CategoryArray {
+    
+    private int id;
+    private String name;
+    private int icon;
+    
+    public CategoryArray() {}
+    
+    public void setID(int value) {
+        this.id = value;
+    }
+    
+    public void setName(String value) {
+        this.name = value;
+    }
+    
+    public void setIcon(int value) {
+        this.icon = value;
+    }
+    
+    public int getID() {
+        return this.id;
+    }
+    
+    public String getName() {
+        return this.name;
+    }
+    
+    public int getIcon() {
+        return this.icon;
+    }
+    
+}
@@ -0,0 +1,102 @@
+package com.mth.fastfood.utils;
+
+import android.content.Context;
+import android.content.res.Resources;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Categories of the CatalogFile, indexed by their compact id, with the ids
+ * of their products. catalog.json is the only place categories are listed;
+ * icons are drawable entry names resolved here. Everything is resolved
+ * once, so lookups are array reads.
+ */
+public class CategoryRegistry {
+    
+    private static final long NO_PRODUCTS[] = new long[0];
+    
+    private static CategoryRegistry sInstance;
+    
+    // Indexed by category id; null where no category has that id.
+    private CategoryArray mCategories[];
+    private long mProducts[][];
+    private List<CategoryArray> mAll;
+    
+    private CategoryRegistry(Context ctx) {
+        CatalogFile file;
+        
+        try {
+            file = CatalogFile.getInstance(ctx);
+        }catch (IOException e) {
+            throw new IllegalStateException("catalog asset unreadable", e);
+        }
+        
+        Resources res = ctx.getResources();
+        String packageName = ctx.getPackageName();
+        int count = file.getCategoryCount();
+        int maxId = 0;
+        
+        for (int i = 0; count > i; i++) {
+            maxId = Math.max(maxId, file.getCategoryId(i));
+        }
+        
+        mCategories = new CategoryArray[maxId + 1];
+        mProducts = new long[maxId + 1][];
+        ArrayList<CategoryArray> all = new ArrayList<CategoryArray>(count);
+        
+        for (int i = 0; count > i; i++) {
+            int id = file.getCategoryId(i);
+            
+            if (id <= 0) {
+                continue;
+            }
+            
+            CategoryArray category = new CategoryArray();
+            category.setID(id);
+            category.setName(file.getCategoryName(i));
+            category.setIcon(res.getIdentifier(file.getCategoryIcon(i), "drawable", packageName));
+            
+            long products[] = new long[file.getCategorySize(i)];
+            
+            for (int j = 0; products.length > j; j++) {
+                products[j] = file.getProductId(file.getCategoryProduct(i, j));
+            }
+            
+            mCategories[id] = category;
+            mProducts[id] = products;
+            all.add(category);
+        }
+        
+        mAll = Collections.unmodifiableList(all);
+    }
+    
+    public static synchronized CategoryRegistry getInstance(Context ctx) {
+        if (sInstance == null) {
+            sInstance = new CategoryRegistry(ctx.getApplicationContext());
+        }
+        
+        return sInstance;
+    }
+    
+    // Null for an unknown id.
+    public CategoryArray get(int id) {
+        return id > 0 && id < mCategories.length ? mCategories[id] : null;
+    }
+    
+    public List<CategoryArray> getAll() {
+        return mAll;
+    }
+    
+    public int getProductCount(int id) {
+        return getProductIds(id).length;
+    }
+    
+    // Product ids of the category in display order. Don't modify.
+    public long[] getProductIds(int id) {
+        long products[] = id > 0 && id < mProducts.length ? mProducts[id] : null;
+        return products == null ? NO_PRODUCTS : products;
+    }
+    
+}
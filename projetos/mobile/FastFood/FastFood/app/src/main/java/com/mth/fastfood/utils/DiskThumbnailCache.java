@@ -0,0 +1,427 @@
+package com.mth.fastfood.utils;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Build;
+import android.util.Log;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Pre-scaled thumbnails kept under getCacheDir() between runs. The journal
+ * records CLEAN/READ/REMOVE lines so the LRU order survives a restart, and
+ * every file is written to a temp file and renamed into place.
+ */
+public class DiskThumbnailCache {
+
+    private static final String TAG = "DiskThumbnailCache";
+
+    private static final String DIRECTORY = "thumbnails";
+    private static final String JOURNAL = "journal";
+    private static final String JOURNAL_TMP = "journal.tmp";
+    private static final String MAGIC = "thumbnails-v1";
+    private static final String EXTENSION = ".webp";
+
+    private static final String CLEAN = "CLEAN";
+    private static final String READ = "READ";
+    private static final String REMOVE = "REMOVE";
+
+    private static final long MAX_BYTES = 20L * 1024 * 1024;
+    private static final int COMPRESS_QUALITY = 85;
+    private static final int REBUILD_THRESHOLD = 2000;
+
+    private static DiskThumbnailCache sInstance;
+
+    private File mDirectory;
+    private String version;
+    private long maxBytes;
+    private long size = 0;
+    private int journalOps = 0;
+    private boolean opened = false;
+    private int hitCount = 0;
+    private int missCount = 0;
+
+    private LinkedHashMap<String, Long> mEntries = new LinkedHashMap<String, Long>(0, 0.75f, true);
+    // Keys whose file is being written.
+    private HashSet<String> mWriting = new HashSet<String>();
+    private Writer mJournal;
+
+    private DiskThumbnailCache(File directory, String version, long maxBytes) {
+        this.mDirectory = directory;
+        this.version = version;
+        this.maxBytes = maxBytes;
+    }
+
+    public static synchronized DiskThumbnailCache getInstance(Context ctx) {
+        if (sInstance == null) {
+            Context app = ctx.getApplicationContext();
+            File directory = new File(app.getCacheDir(), DIRECTORY);
+            sInstance = new DiskThumbnailCache(directory, appVersion(app), MAX_BYTES);
+        }
+
+        return sInstance;
+    }
+
+    private static String appVersion(Context ctx) {
+        // Drawable ids and contents can change with every install, so the
+        // install time invalidates the whole store.
+        try {
+            return String.valueOf(ctx.getPackageManager().getPackageInfo(ctx.getPackageName(), 0).lastUpdateTime);
+        }catch (PackageManager.NameNotFoundException e) {
+            return "0";
+        }
+    }
+
+    public Bitmap get(String key, BitmapPool pool) {
+        File file;
+
+        synchronized (this) {
+            // get(), not containsKey(): only get() moves the entry up in the LRU order.
+            if (!open() || mEntries.get(key) == null) {
+                missCount++;
+                return null;
+            }
+
+            hitCount++;
+            file = fileFor(key);
+            appendJournal(READ, key, -1);
+        }
+
+        Bitmap bitmap = decodeReusing(file, pool);
+
+        if (bitmap == null) {
+            remove(key);
+        }
+
+        return bitmap;
+    }
+
+    private static Bitmap decodeReusing(File file, BitmapPool pool) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(file.getAbsolutePath(), options);
+
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+
+        options.inJustDecodeBounds = false;
+        options.inMutable = true;
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        options.inBitmap = pool.getForDecode(options.outWidth * options.outHeight
+            * BitmapPool.bytesPerPixel(Bitmap.Config.ARGB_8888), Bitmap.Config.ARGB_8888);
+
+        try {
+            return BitmapFactory.decodeFile(file.getAbsolutePath(), options);
+        }catch (IllegalArgumentException e) {
+            pool.put(options.inBitmap);
+            options.inBitmap = null;
+            return BitmapFactory.decodeFile(file.getAbsolutePath(), options);
+        }
+    }
+
+    public void put(String key, Bitmap bitmap) {
+        if (bitmap == null) {
+            return;
+        }
+
+        synchronized (this) {
+            // One writer per key, the others leave it to that one.
+            if (!open() || mEntries.containsKey(key) || !mWriting.add(key)) {
+                return;
+            }
+        }
+
+        try {
+            write(key, bitmap);
+        }finally {
+            synchronized (this) {
+                mWriting.remove(key);
+            }
+        }
+    }
+
+    // Caller owns key in mWriting, so nobody else uses its temp file.
+    private void write(String key, Bitmap bitmap) {
+        File file = fileFor(key);
+        File tmp = new File(file.getPath() + ".tmp");
+        file.getParentFile().mkdirs();
+
+        FileOutputStream out = null;
+
+        try {
+            out = new FileOutputStream(tmp);
+
+            if (!bitmap.compress(compressFormat(), COMPRESS_QUALITY, out)) {
+                out.close();
+                out = null;
+                tmp.delete();
+                return;
+            }
+
+            out.close();
+            out = null;
+        }catch (IOException e) {
+            Log.w(TAG, "write failed for " + key, e);
+            closeQuietly(out);
+            tmp.delete();
+            return;
+        }
+
+        synchronized (this) {
+            if (!tmp.renameTo(file)) {
+                tmp.delete();
+                return;
+            }
+
+            long length = file.length();
+            Long previous = mEntries.put(key, length);
+
+            if (previous != null) {
+                size -= previous;
+            }
+
+            size += length;
+            appendJournal(CLEAN, key, length);
+            trimToSize();
+        }
+    }
+
+    public synchronized void remove(String key) {
+        Long length = mEntries.remove(key);
+
+        if (length != null) {
+            size -= length;
+            fileFor(key).delete();
+            appendJournal(REMOVE, key, -1);
+        }
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    public synchronized int hitCount() {
+        return hitCount;
+    }
+
+    public synchronized int missCount() {
+        return missCount;
+    }
+
+    public synchronized void clear() {
+        closeQuietly(mJournal);
+        mJournal = null;
+        deleteRecursive(mDirectory);
+        mEntries.clear();
+        size = 0;
+        journalOps = 0;
+        opened = false;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Bitmap.CompressFormat compressFormat() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            return Bitmap.CompressFormat.WEBP_LOSSY;
+        }
+
+        return Bitmap.CompressFormat.WEBP;
+    }
+
+    private File fileFor(String key) {
+        return new File(mDirectory, key + EXTENSION);
+    }
+
+    private boolean open() {
+        if (opened) {
+            return mJournal != null;
+        }
+
+        opened = true;
+        mDirectory.mkdirs();
+
+        File journal = new File(mDirectory, JOURNAL);
+
+        if (journal.exists() && !readJournal(journal)) {
+            deleteRecursive(mDirectory);
+            mDirectory.mkdirs();
+            mEntries.clear();
+            size = 0;
+        }
+
+        try {
+            if (journal.exists()) {
+                mJournal = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(journal, true), StandardCharsets.UTF_8));
+            }else {
+                rebuildJournal();
+            }
+        }catch (IOException e) {
+            Log.w(TAG, "journal unavailable, disk cache disabled", e);
+            mJournal = null;
+            return false;
+        }
+
+        trimToSize();
+        return true;
+    }
+
+    private boolean readJournal(File journal) {
+        BufferedReader reader = null;
+
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(journal), StandardCharsets.UTF_8));
+
+            if (!MAGIC.equals(reader.readLine()) || !version.equals(reader.readLine())) {
+                return false;
+            }
+
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ");
+
+                if (parts.length < 2) {
+                    continue;
+                }
+
+                String key = parts[1];
+
+                if (CLEAN.equals(parts[0]) && parts.length == 3) {
+                    long length = Long.parseLong(parts[2]);
+                    Long previous = mEntries.put(key, length);
+
+                    if (previous != null) {
+                        size -= previous;
+                    }
+
+                    size += length;
+                }else if (READ.equals(parts[0])) {
+                    // get() moves the entry to the most recently used end.
+                    mEntries.get(key);
+                }else if (REMOVE.equals(parts[0])) {
+                    Long previous = mEntries.remove(key);
+
+                    if (previous != null) {
+                        size -= previous;
+                    }
+                }
+
+                journalOps++;
+            }
+
+            return true;
+        }catch (IOException | NumberFormatException e) {
+            return false;
+        }finally {
+            closeQuietly(reader);
+        }
+    }
+
+    private void rebuildJournal() throws IOException {
+        closeQuietly(mJournal);
+
+        File tmp = new File(mDirectory, JOURNAL_TMP);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8));
+
+        try {
+            writer.write(MAGIC + "\n");
+            writer.write(version + "\n");
+
+            for (Map.Entry<String, Long> entry : mEntries.entrySet()) {
+                writer.write(CLEAN + " " + entry.getKey() + " " + entry.getValue() + "\n");
+            }
+        }finally {
+            writer.close();
+        }
+
+        File journal = new File(mDirectory, JOURNAL);
+
+        if (!tmp.renameTo(journal)) {
+            throw new IOException("rename " + tmp + " -> " + journal);
+        }
+
+        journalOps = mEntries.size();
+        mJournal = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(journal, true), StandardCharsets.UTF_8));
+    }
+
+    private void appendJournal(String op, String key, long length) {
+        if (mJournal == null) {
+            return;
+        }
+
+        try {
+            mJournal.write(length >= 0 ? op + " " + key + " " + length + "\n" : op + " " + key + "\n");
+            journalOps++;
+
+            // READ lines only keep the LRU order, losing the last few costs nothing:
+            // they stay buffered until the next CLEAN/REMOVE or a full buffer.
+            if (!READ.equals(op)) {
+                mJournal.flush();
+            }
+
+            if (journalOps >= REBUILD_THRESHOLD && journalOps >= mEntries.size() * 2) {
+                rebuildJournal();
+            }
+        }catch (IOException e) {
+            Log.w(TAG, "journal write failed, disk cache disabled", e);
+            closeQuietly(mJournal);
+            mJournal = null;
+        }
+    }
+
+    private void trimToSize() {
+        Iterator<Map.Entry<String, Long>> iterator = mEntries.entrySet().iterator();
+
+        while (size > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            String key = eldest.getKey();
+
+            size -= eldest.getValue();
+            iterator.remove();
+            fileFor(key).delete();
+            appendJournal(REMOVE, key, -1);
+
+            // A journal rebuild replaces the writer but not the map, the iterator stays valid.
+        }
+    }
+
+    private static void deleteRecursive(File file) {
+        File[] children = file.listFiles();
+
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursive(child);
+            }
+        }
+
+        file.delete();
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+
+        try {
+            closeable.close();
+        }catch (IOException e) {
+            // ignored
+        }
+    }
+
+}
@@ -0,0 +1,425 @@
+package com.mth.fastfood.utils;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.ViewTreeObserver;
+import android.widget.ImageView;
+import androidx.annotation.MainThread;
+import com.mth.fastfood.R;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Decodes product images off the main thread, sampled down to the size
+ * of the target ImageView.
+ */
+public class ImageLoader {
+
+    private static final String TAG = "ImageLoader";
+
+    private static ImageLoader sInstance;
+
+    private Resources mResources;
+    private BitmapCache mCache;
+    private DiskThumbnailCache mDiskCache;
+    private BitmapPool mPool;
+    private Paint mScalePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private int densityDpi;
+    private ExecutorService mExecutor;
+    private Handler mMainHandler;
+
+    private AtomicLong decodeCount = new AtomicLong();
+    private AtomicLong decodeTimeNanos = new AtomicLong();
+    private AtomicLong decodeBytes = new AtomicLong();
+    private AtomicLong allocationCount = new AtomicLong();
+
+    private ImageLoader(Context ctx) {
+        this.mResources = ctx.getApplicationContext().getResources();
+        this.mCache = BitmapCache.getInstance(ctx);
+        this.mDiskCache = DiskThumbnailCache.getInstance(ctx);
+        this.mPool = BitmapPool.getInstance();
+        this.densityDpi = mResources.getDisplayMetrics().densityDpi;
+        this.mMainHandler = new Handler(Looper.getMainLooper());
+
+        int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        this.mExecutor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private int count = 0;
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                Thread thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        runnable.run();
+                    }
+                }, "image-loader-" + (count++));
+
+                return thread;
+            }
+        });
+    }
+
+    public static synchronized ImageLoader getInstance(Context ctx) {
+        if (sInstance == null) {
+            sInstance = new ImageLoader(ctx);
+        }
+
+        return sInstance;
+    }
+
+    @MainThread
+    public void load(int resId, ImageView view) {
+        load(resId, 0, view);
+    }
+
+    @MainThread
+    public void load(int resId, int layoutRes, final ImageView view) {
+        clear(view);
+
+        final Request request = new Request(resId, layoutRes, view);
+        view.setTag(R.id.image_loader_request, request);
+
+        if (view.getWidth() > 0 && view.getHeight() > 0) {
+            request.submit(view.getWidth(), view.getHeight());
+            return;
+        }
+
+        // Not laid out yet (bound before attach): wait for pre-draw to know the size.
+        final ViewTreeObserver observer = view.getViewTreeObserver();
+        request.mPreDrawListener = new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                if (view.getWidth() <= 0 || view.getHeight() <= 0) {
+                    return true;
+                }
+
+                request.removePreDrawListener();
+                request.submit(view.getWidth(), view.getHeight());
+                return true;
+            }
+        };
+        observer.addOnPreDrawListener(request.mPreDrawListener);
+    }
+
+    @MainThread
+    public void cancel(ImageView view) {
+        Object tag = view.getTag(R.id.image_loader_request);
+
+        if (tag instanceof Request) {
+            ((Request) tag).cancel();
+        }
+
+        view.setTag(R.id.image_loader_request, null);
+    }
+
+    /*
+     * Cancels any pending request and gives the shown bitmap back, so it
+     * can be reused once nothing else displays it.
+     */
+    @MainThread
+    public void clear(ImageView view) {
+        cancel(view);
+
+        Object shown = view.getTag(R.id.image_loader_bitmap);
+        view.setTag(R.id.image_loader_bitmap, null);
+        view.setImageDrawable(null);
+
+        if (shown instanceof Bitmap) {
+            mCache.release((Bitmap) shown);
+        }
+    }
+
+    private void display(ImageView view, Bitmap bitmap) {
+        view.setTag(R.id.image_loader_request, null);
+        view.setTag(R.id.image_loader_bitmap, bitmap);
+        view.setImageBitmap(bitmap);
+    }
+
+    public BitmapCache getCache() {
+        return mCache;
+    }
+
+    private String thumbnailKey(int resId, int layoutRes, int width, int height) {
+        // Entry names rather than ids: ids are not stable across builds.
+        String layout = layoutRes == 0 ? "default" : mResources.getResourceEntryName(layoutRes);
+        String name = mResources.getResourceEntryName(resId);
+
+        return densityDpi + "/" + layout + "/" + name + "_" + width + "x" + height;
+    }
+
+    /*
+     * The bitmap for a request, acquired from the memory cache: looked up
+     * there first, then on disk, and decoded from the APK only when both
+     * miss. Runs on the loader threads.
+     */
+    Bitmap obtain(int resId, int layoutRes, int reqWidth, int reqHeight) {
+        // Another request may have decoded the same image meanwhile.
+        Bitmap bitmap = mCache.acquire(resId, reqWidth, reqHeight);
+
+        if (bitmap != null) {
+            return bitmap;
+        }
+
+        String key = thumbnailKey(resId, layoutRes, reqWidth, reqHeight);
+        bitmap = mDiskCache.get(key, mPool);
+
+        if (bitmap != null) {
+            mCache.putAndAcquire(resId, reqWidth, reqHeight, bitmap);
+            return bitmap;
+        }
+
+        bitmap = decode(resId, reqWidth, reqHeight);
+
+        if (bitmap == null) {
+            return null;
+        }
+
+        mCache.putAndAcquire(resId, reqWidth, reqHeight, bitmap);
+        writeBack(key, bitmap);
+        return bitmap;
+    }
+
+    /*
+     * Stores a decoded thumbnail on disk behind the requests already queued,
+     * so the WebP compress never delays an image. The write holds its own
+     * reference: the bitmap can't be pooled and reused while it is read.
+     */
+    private void writeBack(final String key, final Bitmap bitmap) {
+        mCache.retain(bitmap);
+
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    mDiskCache.put(key, bitmap);
+                }finally {
+                    mCache.release(bitmap);
+                }
+            }
+        });
+    }
+
+    public Bitmap decode(int resId, int reqWidth, int reqHeight) {
+        long start = SystemClock.elapsedRealtimeNanos();
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        // Product images live in drawable-v24 (no density qualifier), so without this
+        // BitmapFactory would upscale them to the screen density before sampling.
+        options.inScaled = false;
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(mResources, resId, options);
+
+        int width = options.outWidth;
+        int height = options.outHeight;
+
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+
+        options.inSampleSize = calculateInSampleSize(width, height, reqWidth, reqHeight);
+        options.inJustDecodeBounds = false;
+
+        Bitmap sampled = decodeResourceReusing(resId, options);
+
+        if (sampled == null) {
+            return null;
+        }
+
+        Bitmap result = scaleToFill(sampled, reqWidth, reqHeight);
+
+        long elapsed = SystemClock.elapsedRealtimeNanos() - start;
+        decodeCount.incrementAndGet();
+        decodeTimeNanos.addAndGet(elapsed);
+        decodeBytes.addAndGet(result.getAllocationByteCount());
+
+        if (Log.isLoggable(TAG, Log.DEBUG)) {
+            Log.d(TAG, "decode " + width + "x" + height + " -> " + result.getWidth() + "x" + result.getHeight()
+                + " in " + (elapsed / 1000) + "us, " + result.getAllocationByteCount() + " bytes");
+        }
+
+        return result;
+    }
+
+    private Bitmap decodeResourceReusing(int resId, BitmapFactory.Options options) {
+        int sample = options.inSampleSize;
+        // Round up: decoders differ on how they round sampled sizes.
+        int bytes = ((options.outWidth + sample - 1) / sample) * ((options.outHeight + sample - 1) / sample)
+            * BitmapPool.bytesPerPixel(Bitmap.Config.ARGB_8888);
+
+        options.inMutable = true;
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        options.inBitmap = mPool.getForDecode(bytes, Bitmap.Config.ARGB_8888);
+
+        if (options.inBitmap == null) {
+            allocationCount.incrementAndGet();
+            return BitmapFactory.decodeResource(mResources, resId, options);
+        }
+
+        try {
+            return BitmapFactory.decodeResource(mResources, resId, options);
+        }catch (IllegalArgumentException e) {
+            // The pooled bitmap could not be reused for this image.
+            mPool.put(options.inBitmap);
+            options.inBitmap = null;
+            allocationCount.incrementAndGet();
+            return BitmapFactory.decodeResource(mResources, resId, options);
+        }
+    }
+
+    public static int calculateInSampleSize(int width, int height, int reqWidth, int reqHeight) {
+        int inSampleSize = 1;
+
+        if (reqWidth <= 0 || reqHeight <= 0) {
+            return inSampleSize;
+        }
+
+        // Largest power of two that keeps both sides >= the requested size.
+        while ((width / (inSampleSize * 2)) >= reqWidth && (height / (inSampleSize * 2)) >= reqHeight) {
+            inSampleSize *= 2;
+        }
+
+        return inSampleSize;
+    }
+
+    private Bitmap scaleToFill(Bitmap source, int reqWidth, int reqHeight) {
+        if (reqWidth <= 0 || reqHeight <= 0) {
+            return source;
+        }
+
+        // centerCrop scale: cover the whole target while keeping the aspect ratio.
+        float scale = Math.max((float) reqWidth / source.getWidth(), (float) reqHeight / source.getHeight());
+
+        if (scale >= 1f) {
+            return source;
+        }
+
+        int width = Math.max(1, Math.round(source.getWidth() * scale));
+        int height = Math.max(1, Math.round(source.getHeight() * scale));
+
+        Bitmap scaled = mPool.get(width, height, Bitmap.Config.ARGB_8888);
+
+        if (scaled == null) {
+            scaled = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            allocationCount.incrementAndGet();
+        }else {
+            scaled.eraseColor(Color.TRANSPARENT);
+        }
+
+        Canvas canvas = new Canvas(scaled);
+        canvas.drawBitmap(source, null, new Rect(0, 0, width, height), mScalePaint);
+        canvas.setBitmap(null);
+
+        // The full sampled bitmap goes straight back for the next decode.
+        mPool.put(source);
+
+        return scaled;
+    }
+
+    public BitmapPool getPool() {
+        return mPool;
+    }
+
+    /*
+     * Bitmaps allocated because the pool had nothing to reuse. Stays flat
+     * once scrolling reaches a steady state.
+     */
+    public long getAllocationCount() {
+        return allocationCount.get();
+    }
+
+    public long getDecodeCount() {
+        return decodeCount.get();
+    }
+
+    public long getAverageDecodeTimeMicros() {
+        long count = decodeCount.get();
+        return count == 0 ? 0 : decodeTimeNanos.get() / count / 1000;
+    }
+
+    public long getAverageDecodeBytes() {
+        long count = decodeCount.get();
+        return count == 0 ? 0 : decodeBytes.get() / count;
+    }
+
+    private class Request implements Runnable {
+
+        private int resId;
+        private int layoutRes;
+        private ImageView mView;
+        private int reqWidth;
+        private int reqHeight;
+        private volatile boolean cancelled = false;
+        private ViewTreeObserver.OnPreDrawListener mPreDrawListener;
+
+        Request(int resId, int layoutRes, ImageView view) {
+            this.resId = resId;
+            this.layoutRes = layoutRes;
+            this.mView = view;
+        }
+
+        void submit(int width, int height) {
+            this.reqWidth = width;
+            this.reqHeight = height;
+
+            Bitmap cached = mCache.acquire(resId, width, height);
+
+            if (cached != null) {
+                display(mView, cached);
+                return;
+            }
+
+            mExecutor.execute(this);
+        }
+
+        void cancel() {
+            cancelled = true;
+            removePreDrawListener();
+        }
+
+        void removePreDrawListener() {
+            if (mPreDrawListener != null) {
+                mView.getViewTreeObserver().removeOnPreDrawListener(mPreDrawListener);
+                mPreDrawListener = null;
+            }
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+
+            final Bitmap result = obtain(resId, layoutRes, reqWidth, reqHeight);
+
+            mMainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    if (cancelled || mView.getTag(R.id.image_loader_request) != Request.this) {
+                        if (result != null) {
+                            mCache.release(result);
+                        }
+                        return;
+                    }
+
+                    display(mView, result);
+                }
+            });
+        }
+
+    }
+
+}
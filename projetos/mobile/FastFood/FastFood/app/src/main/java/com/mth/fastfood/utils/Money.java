@@ -0,0 +1,37 @@
+package com.mth.fastfood.utils;
+
+/*
+ * Formats amounts kept in cents as Brazilian reais ("R$ 1.234,50")
+ * with integer arithmetic only.
+ */
+public class Money {
+    
+    private Money() {}
+    
+    public static String format(long cents) {
+        StringBuilder builder = new StringBuilder(16);
+        
+        if (cents < 0) {
+            builder.append('-');
+            cents = -cents;
+        }
+        
+        builder.append("R$ ");
+        
+        String units = Long.toString(cents / 100);
+        
+        for (int i = 0; units.length() > i; i++) {
+            if (i > 0 && (units.length() - i) % 3 == 0) {
+                builder.append('.');
+            }
+            
+            builder.append(units.charAt(i));
+        }
+        
+        long fraction = cents % 100;
+        builder.append(',').append(fraction < 10 ? "0" : "").append(fraction);
+        
+        return builder.toString();
+    }
+    
+}
@@ -0,0 +1,174 @@
+package com.mth.fastfood.utils;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import androidx.annotation.MainThread;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import java.util.ArrayDeque;
+
+/*
+ * Small stock of list rows inflated on AsyncLayoutInflater's thread before
+ * the screen showing them is created, so the first onCreateViewHolder calls
+ * don't pay for inflation on the main thread.
+ *
+ * Rows are inflated with the ViewPoolRegistry inflater's context, so they
+ * can be handed to any screen, and with RecyclerView layout params.
+ */
+public class PreInflater implements ComponentCallbacks2 {
+    
+    private static final String TAG = "PreInflater";
+    
+    private static PreInflater sInstance;
+    
+    private Context mContext;
+    private LayoutInflater mInflater;
+    private AsyncLayoutInflater mAsyncInflater;
+    // Only used to generate RecyclerView.LayoutParams for the rows' root attributes.
+    private RecyclerView mTemplateParent;
+    
+    private SparseArray<ArrayDeque<View>> mStock = new SparseArray<ArrayDeque<View>>();
+    private SparseIntArray mPending = new SparseIntArray();
+    
+    private long stockCount = 0;
+    private long stockTimeNanos = 0;
+    private long inflateCount = 0;
+    private long inflateTimeNanos = 0;
+    
+    private PreInflater(Context ctx) {
+        this.mInflater = ViewPoolRegistry.getInstance(ctx).getInflater();
+        this.mContext = mInflater.getContext();
+        this.mAsyncInflater = new AsyncLayoutInflater(mContext);
+        this.mTemplateParent = new RecyclerView(mContext);
+        this.mTemplateParent.setLayoutManager(new LinearLayoutManager(mContext));
+    }
+    
+    @MainThread
+    public static PreInflater getInstance(Context ctx) {
+        if (sInstance == null) {
+            sInstance = new PreInflater(ctx);
+            ctx.getApplicationContext().registerComponentCallbacks(sInstance);
+        }
+        
+        return sInstance;
+    }
+    
+    /*
+     * Starts inflating rows in the background until count of them are in
+     * stock or on their way.
+     */
+    @MainThread
+    public void prefill(final int layoutRes, int count) {
+        int missing = count - stock(layoutRes).size() - mPending.get(layoutRes);
+        
+        for (int i = 0; missing > i; i++) {
+            mPending.put(layoutRes, mPending.get(layoutRes) + 1);
+            
+            mAsyncInflater.inflate(layoutRes, mTemplateParent, new AsyncLayoutInflater.OnInflateFinishedListener() {
+                @Override
+                public void onInflateFinished(View view, int resid, ViewGroup parent) {
+                    mPending.put(layoutRes, Math.max(0, mPending.get(layoutRes) - 1));
+                    stock(layoutRes).addLast(view);
+                }
+            });
+        }
+    }
+    
+    /*
+     * A row for the given layout: from the stock when there is one, inflated
+     * on the calling (main) thread otherwise.
+     */
+    @MainThread
+    public View inflate(int layoutRes, ViewGroup parent) {
+        long start = SystemClock.elapsedRealtimeNanos();
+        View view = stock(layoutRes).pollFirst();
+        boolean stocked = view != null;
+        
+        if (!stocked) {
+            view = mInflater.inflate(layoutRes, parent, false);
+        }
+        
+        long elapsed = SystemClock.elapsedRealtimeNanos() - start;
+        
+        if (stocked) {
+            stockCount++;
+            stockTimeNanos += elapsed;
+        }else {
+            inflateCount++;
+            inflateTimeNanos += elapsed;
+        }
+        
+        if (Log.isLoggable(TAG, Log.DEBUG)) {
+            Log.d(TAG, mContext.getResources().getResourceEntryName(layoutRes)
+                + (stocked ? " from stock in " : " inflated in ") + (elapsed / 1000) + "us");
+        }
+        
+        return view;
+    }
+    
+    private ArrayDeque<View> stock(int layoutRes) {
+        ArrayDeque<View> stock = mStock.get(layoutRes);
+        
+        if (stock == null) {
+            stock = new ArrayDeque<View>();
+            mStock.put(layoutRes, stock);
+        }
+        
+        return stock;
+    }
+    
+    @MainThread
+    public void clear() {
+        mStock.clear();
+    }
+    
+    @MainThread
+    public int getStockSize(int layoutRes) {
+        return stock(layoutRes).size();
+    }
+    
+    public long getStockCount() {
+        return stockCount;
+    }
+    
+    public long getInflateCount() {
+        return inflateCount;
+    }
+    
+    // Per row, on the main thread, when the row came from the stock.
+    public long getAverageStockTimeMicros() {
+        return stockCount == 0 ? 0 : stockTimeNanos / stockCount / 1000;
+    }
+    
+    // Per row, on the main thread, when the stock was empty.
+    public long getAverageInflateTimeMicros() {
+        return inflateCount == 0 ? 0 : inflateTimeNanos / inflateCount / 1000;
+    }
+    
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_BACKGROUND || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            clear();
+        }
+    }
+    
+    @Override
+    public void onLowMemory() {
+        clear();
+    }
+    
+    @Override
+    public void onConfigurationChanged(Configuration config) {
+        clear();
+    }
+    
+}
@@ -1,33 +1,30 @@
 package com.mth.fastfood.utils;
 
+import java.util.Objects;
+
 public class ProductArray {
     
-    private String title;
-    private String adrress;
-    private String campanyName;
-    private String campanyHour;
-    private int image;
-    
-    public ProductArray() {}
-    
-    public void setTitle(String value) {
-        this.title = value;
-    }
-    
-    public void setAdrress(String value) {
-        this.adrress = value;
-    }
-    
-    public void setCampanyName(String value) {
-        this.campanyName = value;
-    }
+    private final long id;
+    private final String title;
+    private final String adrress;
+    private final String campanyName;
+    private final String campanyHour;
+    private final int image;
+    // Minor units (cents), never a float.
+    private final long price;
     
-    public void setCampanyHour(String value) {
-        this.campanyHour = value;
+    public ProductArray(long id, int image, String title, String adrress, String campanyName, String campanyHour, long price) {
+        this.id = id;
+        this.image = image;
+        this.title = title;
+        this.adrress = adrress;
+        this.campanyName = campanyName;
+        this.campanyHour = campanyHour;
+        this.price = price;
     }
     
-    public void setImage(int value) {
-        this.image = value;
+    public long getID() {
+        return this.id;
     }
     
     public String getTitle() {
@@ -50,4 +47,38 @@ public class ProductArray {
         return this.image;
     }
     
+    public long getPrice() {
+        return this.price;
+    }
+    
+    public boolean isSameProduct(ProductArray other) {
+        return other != null && this.id == other.id;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        
+        if (!(obj instanceof ProductArray)) {
+            return false;
+        }
+        
+        ProductArray other = (ProductArray) obj;
+        
+        return id == other.id
+            && image == other.image
+            && price == other.price
+            && Objects.equals(title, other.title)
+            && Objects.equals(adrress, other.adrress)
+            && Objects.equals(campanyName, other.campanyName)
+            && Objects.equals(campanyHour, other.campanyHour);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, image, title, adrress, campanyName, campanyHour, price);
+    }
+    
 }
@@ -0,0 +1,136 @@
+package com.mth.fastfood.utils;
+
+import androidx.annotation.MainThread;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import com.mth.fastfood.adapter.RecyclerViewAdapter;
+import com.mth.fastfood.inter.OnProductsLoadListener;
+import com.mth.fastfood.inter.PageSource;
+import java.util.List;
+
+/*
+ * Feeds a RecyclerViewAdapter page by page as its RecyclerView scrolls.
+ * The adapter only holds a window of at most maxPages pages: pages far
+ * behind the scroll direction are dropped and read again from the source
+ * when the user comes back to them.
+ *
+ * Meant for a RecyclerView whose adapter is the RecyclerViewAdapter itself
+ * (positions are not translated through a ConcatAdapter).
+ */
+public class ProductPager extends RecyclerView.OnScrollListener {
+    
+    // Rows left before the edge of the window when the next page is requested.
+    private static final int PREFETCH_DISTANCE = 5;
+    
+    private RecyclerViewAdapter mAdapter;
+    private PageSource mSource;
+    private int pageSize;
+    private int maxItems;
+    
+    // Source position of the adapter's first row.
+    private int firstPosition = 0;
+    private boolean loadingNext = false;
+    private boolean loadingPrevious = false;
+    private boolean endReached = false;
+    
+    public ProductPager(RecyclerViewAdapter adapter, PageSource source, int pageSize, int maxPages) {
+        this.mAdapter = adapter;
+        this.mSource = source;
+        this.pageSize = pageSize;
+        this.maxItems = pageSize * Math.max(2, maxPages);
+    }
+    
+    @MainThread
+    public void start() {
+        loadNext();
+    }
+    
+    @Override
+    public void onScrolled(RecyclerView recycler, int dx, int dy) {
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recycler.getLayoutManager();
+        int first = layoutManager.findFirstVisibleItemPosition();
+        int last = layoutManager.findLastVisibleItemPosition();
+        
+        if (first == RecyclerView.NO_POSITION) {
+            return;
+        }
+        
+        if (dy >= 0 && last >= mAdapter.getItemCount() - PREFETCH_DISTANCE) {
+            loadNext();
+        }
+        
+        if (dy <= 0 && first < PREFETCH_DISTANCE && firstPosition > 0) {
+            loadPrevious();
+        }
+    }
+    
+    private void loadNext() {
+        if (loadingNext || endReached) {
+            return;
+        }
+        
+        loadingNext = true;
+        final int from = firstPosition + mAdapter.getItemCount();
+        
+        mSource.loadPage(from, pageSize, new OnProductsLoadListener() {
+            @Override
+            public void onLoad(List<ProductArray> products) {
+                loadingNext = false;
+                
+                // The window moved while the page was read.
+                if (from != firstPosition + mAdapter.getItemCount()) {
+                    return;
+                }
+                
+                endReached = products.size() < pageSize;
+                mAdapter.addItems(products);
+                
+                int overflow = mAdapter.getItemCount() - maxItems;
+                
+                if (overflow > 0) {
+                    // Whole pages, so the window start stays page aligned.
+                    int count = roundUpToPage(overflow);
+                    mAdapter.removeItems(0, count);
+                    firstPosition += count;
+                }
+            }
+        });
+    }
+    
+    private void loadPrevious() {
+        if (loadingPrevious) {
+            return;
+        }
+        
+        loadingPrevious = true;
+        final int from = Math.max(0, firstPosition - pageSize);
+        final int limit = firstPosition - from;
+        
+        mSource.loadPage(from, limit, new OnProductsLoadListener() {
+            @Override
+            public void onLoad(List<ProductArray> products) {
+                loadingPrevious = false;
+                
+                if (from + limit != firstPosition || products.size() != limit) {
+                    return;
+                }
+                
+                mAdapter.addItems(0, products);
+                firstPosition = from;
+                
+                int overflow = mAdapter.getItemCount() - maxItems;
+                
+                if (overflow > 0) {
+                    int count = Math.min(roundUpToPage(overflow), mAdapter.getItemCount() - pageSize);
+                    mAdapter.removeItems(mAdapter.getItemCount() - count, count);
+                    endReached = false;
+                }
+            }
+        });
+    }
+    
+    private int roundUpToPage(int count) {
+        return (count + pageSize - 1) / pageSize * pageSize;
+    }
+    
+}
@@ -0,0 +1,304 @@
+package com.mth.fastfood.utils;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+import androidx.annotation.MainThread;
+import com.mth.fastfood.R;
+import com.mth.fastfood.inter.OnHistoryLoadListener;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/*
+ * Past search queries under getFilesDir(). Every search appends one USE
+ * line to the log; once the log holds far more lines than entries it is
+ * rewritten with one line per entry. Only the most recently used entries
+ * are kept, and the log is read on first use, all on a background thread.
+ */
+public class SearchHistory {
+    
+    private static final String TAG = "SearchHistory";
+    
+    private static final String LOG = "search_history.log";
+    private static final String LOG_TMP = "search_history.log.tmp";
+    private static final String MAGIC = "search-history-v1";
+    private static final String USE = "USE";
+    
+    // Rewrite once the log has this many lines per live entry.
+    private static final int COMPACT_RATIO = 4;
+    // Use counts halve every week without use.
+    private static final double HALF_LIFE_MILLIS = 7 * 24 * 60 * 60 * 1000.0;
+    
+    private static SearchHistory sInstance;
+    
+    private File mFile;
+    private int maxEntries;
+    private ExecutorService mExecutor;
+    private Handler mMainHandler = new Handler(Looper.getMainLooper());
+    
+    // History thread only. Access ordered, so the eldest is the least recently used.
+    private LinkedHashMap<String, Entry> mEntries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+    private Writer mLog;
+    private int logLines = 0;
+    private boolean loaded = false;
+    
+    private SearchHistory(File file, int maxEntries) {
+        this.mFile = file;
+        this.maxEntries = maxEntries;
+        this.mExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                return new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        runnable.run();
+                    }
+                }, "search-history");
+            }
+        });
+    }
+    
+    public static synchronized SearchHistory getInstance(Context ctx) {
+        if (sInstance == null) {
+            Context app = ctx.getApplicationContext();
+            sInstance = new SearchHistory(new File(app.getFilesDir(), LOG), app.getResources().getInteger(R.integer.search_history_size));
+        }
+        
+        return sInstance;
+    }
+    
+    /*
+     * Up to limit queries ranked by how often and how recently they were
+     * searched.
+     */
+    @MainThread
+    public void load(final int limit, final OnHistoryLoadListener listener) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                open();
+                
+                final List<String> queries = ranked(limit, System.currentTimeMillis());
+                
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onLoad(queries);
+                    }
+                });
+            }
+        });
+    }
+    
+    @MainThread
+    public void record(String query) {
+        final String text = query.trim();
+        final long now = System.currentTimeMillis();
+        
+        if (text.isEmpty()) {
+            return;
+        }
+        
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                open();
+                use(text, now, 1);
+                append(now, text);
+            }
+        });
+    }
+    
+    private List<String> ranked(int limit, final long now) {
+        ArrayList<Entry> entries = new ArrayList<Entry>(mEntries.values());
+        
+        Collections.sort(entries, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry a, Entry b) {
+                return Double.compare(b.score(now), a.score(now));
+            }
+        });
+        
+        ArrayList<String> queries = new ArrayList<String>(Math.min(limit, entries.size()));
+        
+        for (int i = 0; entries.size() > i && limit > i; i++) {
+            queries.add(entries.get(i).query);
+        }
+        
+        return queries;
+    }
+    
+    private void use(String query, long time, int count) {
+        // Typed with and without accents or capitals, a query is the same entry.
+        String key = SearchIndex.normalize(query);
+        Entry entry = mEntries.get(key);
+        
+        if (entry == null) {
+            entry = new Entry();
+            mEntries.put(key, entry);
+        }
+        
+        entry.query = query;
+        entry.lastUsed = Math.max(entry.lastUsed, time);
+        entry.count += count;
+        
+        Iterator<Entry> eldest = mEntries.values().iterator();
+        
+        while (mEntries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+    
+    private void open() {
+        if (loaded) {
+            return;
+        }
+        
+        loaded = true;
+        
+        if (mFile.exists() && !read()) {
+            mEntries.clear();
+        }
+        
+        try {
+            if (mFile.exists() && mEntries.size() > 0) {
+                mLog = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(mFile, true), StandardCharsets.UTF_8));
+            }else {
+                compact();
+            }
+        }catch (IOException e) {
+            Log.w(TAG, "log unavailable, history kept in memory only", e);
+            mLog = null;
+        }
+    }
+    
+    private boolean read() {
+        BufferedReader reader = null;
+        
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(mFile), StandardCharsets.UTF_8));
+            
+            if (!MAGIC.equals(reader.readLine())) {
+                return false;
+            }
+            
+            String line;
+            
+            while ((line = reader.readLine()) != null) {
+                // USE <time> <count> <query>, the query may contain spaces.
+                String parts[] = line.split(" ", 4);
+                
+                if (parts.length == 4 && USE.equals(parts[0])) {
+                    use(parts[3], Long.parseLong(parts[1]), Integer.parseInt(parts[2]));
+                }
+                
+                logLines++;
+            }
+            
+            return true;
+        }catch (IOException | NumberFormatException e) {
+            return false;
+        }finally {
+            closeQuietly(reader);
+        }
+    }
+    
+    private void append(long time, String query) {
+        if (mLog == null) {
+            return;
+        }
+        
+        try {
+            mLog.write(USE + " " + time + " 1 " + oneLine(query) + "\n");
+            mLog.flush();
+            logLines++;
+            
+            if (logLines >= maxEntries * COMPACT_RATIO) {
+                compact();
+            }
+        }catch (IOException e) {
+            Log.w(TAG, "log write failed, history kept in memory only", e);
+            closeQuietly(mLog);
+            mLog = null;
+        }
+    }
+    
+    private void compact() throws IOException {
+        closeQuietly(mLog);
+        mLog = null;
+        
+        File tmp = new File(mFile.getParentFile(), LOG_TMP);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8));
+        
+        try {
+            writer.write(MAGIC + "\n");
+            
+            // Eldest first, so reading the file back restores the same order.
+            for (Map.Entry<String, Entry> entry : mEntries.entrySet()) {
+                Entry value = entry.getValue();
+                writer.write(USE + " " + value.lastUsed + " " + value.count + " " + oneLine(value.query) + "\n");
+            }
+        }finally {
+            writer.close();
+        }
+        
+        if (!tmp.renameTo(mFile)) {
+            throw new IOException("rename " + tmp + " -> " + mFile);
+        }
+        
+        logLines = mEntries.size();
+        mLog = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(mFile, true), StandardCharsets.UTF_8));
+    }
+    
+    private static String oneLine(String query) {
+        return query.replace('\n', ' ').replace('\r', ' ');
+    }
+    
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        
+        try {
+            closeable.close();
+        }catch (IOException e) {
+            // ignored
+        }
+    }
+    
+    private static class Entry {
+        
+        private String query;
+        private long lastUsed;
+        private int count;
+        
+        double score(long now) {
+            return count * Math.pow(0.5, Math.max(0, now - lastUsed) / HALF_LIFE_MILLIS);
+        }
+        
+    }
+    
+}
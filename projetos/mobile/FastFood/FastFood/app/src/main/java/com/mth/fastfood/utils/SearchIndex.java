@@ -0,0 +1,789 @@
+package com.mth.fastfood.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+ * Prefix index over product titles, company names and category names.
+ * Tokens are lower-cased with their accents stripped and kept in one sorted
+ * array, so every token starting with a prefix sits in a contiguous range
+ * found by two binary searches. Each token points to the sorted ordinals
+ * of the documents containing it.
+ *
+ * Plain Java on purpose: it is built once from the CatalogFile and only
+ * read afterwards, so any thread may search it.
+ */
+public class SearchIndex {
+
+    private static final int NO_DOCS[] = new int[0];
+
+    // Fuzzy candidates checked per query word, and documents looked at per query.
+    private static final int MAX_FUZZY_TOKENS = 64;
+    private static final int MAX_SCANNED_DOCS = 2000;
+    private static final int MAX_DISTANCE = 2;
+
+    private String mTokens[];
+    private int mPostings[][];
+    // Token ordinals of every document, sorted, to test the other query tokens.
+    private int mDocTokens[][];
+    private long mIds[];
+    // Token ordinals containing each bigram, keyed by gramKey().
+    private HashMap<Integer, int[]> mGrams;
+    private int maxTokenLength = 0;
+
+    private SearchIndex(String tokens[], int postings[][], int docTokens[][], long ids[]) {
+        this.mTokens = tokens;
+        this.mPostings = postings;
+        this.mDocTokens = docTokens;
+        this.mIds = ids;
+        this.mGrams = indexGrams(tokens);
+
+        for (int t = 0; tokens.length > t; t++) {
+            maxTokenLength = Math.max(maxTokenLength, tokens[t].length());
+        }
+    }
+
+    public static SearchIndex fromCatalog(CatalogFile file) {
+        Builder builder = new Builder(file.getProductCount());
+
+        for (int i = 0; file.getProductCount() > i; i++) {
+            builder.add(i, file.getProductId(i), file.getProductTitle(i));
+            builder.add(i, file.getProductId(i), file.getProductCampanyName(i));
+        }
+
+        for (int i = 0; file.getCategoryCount() > i; i++) {
+            String name = file.getCategoryName(i);
+
+            for (int j = 0; file.getCategorySize(i) > j; j++) {
+                int doc = file.getCategoryProduct(i, j);
+                builder.add(doc, file.getProductId(doc), name);
+            }
+        }
+
+        return builder.build();
+    }
+
+    /*
+     * Ids of the products containing every word of the query as a token,
+     * except the last word, which only has to start one: "x-bu" matches
+     * "X-Burguer" but "bu ch" matches nothing. In catalog order, at most
+     * limit ids.
+     */
+    public long[] search(String query, int limit) {
+        String words[] = tokenize(query);
+
+        if (words.length == 0 || limit <= 0) {
+            return new long[0];
+        }
+
+        int from[] = new int[words.length];
+        int to[] = new int[words.length];
+        int driver = -1;
+        long driverSize = Long.MAX_VALUE;
+
+        for (int w = 0; words.length > w; w++) {
+            from[w] = lowerBound(words[w]);
+            // Only the word being typed is a prefix; the others are whole tokens.
+            to[w] = w == words.length - 1 ? upperBound(words[w], from[w]) : exactBound(words[w], from[w]);
+
+            if (from[w] == to[w]) {
+                return new long[0];
+            }
+
+            // Start from the word with the fewest postings, the others only filter.
+            long size = postingCount(from[w], to[w], driverSize);
+
+            if (size < driverSize) {
+                driverSize = size;
+                driver = w;
+            }
+        }
+
+        long result[] = new long[limit];
+        int count = 0;
+
+        Merger merger = new Merger(mPostings, from[driver], to[driver]);
+        int doc;
+
+        while (count < limit && (doc = merger.next()) >= 0) {
+            if (matchesAll(doc, from, to, driver)) {
+                result[count++] = mIds[doc];
+            }
+        }
+
+        return count == limit ? result : Arrays.copyOf(result, count);
+    }
+
+    /*
+     * Like search(), but every word may be misspelled by up to
+     * maxDistance() edits. Ids come best first: fewest edits over all the
+     * words, then catalog order. The work per word and per query is capped,
+     * so a very common word can only rank part of the catalog.
+     */
+    public long[] searchFuzzy(String query, int limit) {
+        String words[] = tokenize(query);
+
+        if (words.length == 0 || limit <= 0) {
+            return new long[0];
+        }
+
+        int matched[][] = new int[words.length][];
+        int distances[][] = new int[words.length][];
+        int driver = -1;
+        long driverSize = Long.MAX_VALUE;
+
+        for (int w = 0; words.length > w; w++) {
+            fuzzyTokens(words[w], w == words.length - 1, w, matched, distances);
+
+            if (matched[w].length == 0) {
+                return new long[0];
+            }
+
+            long size = 0;
+
+            for (int i = 0; matched[w].length > i && size < driverSize; i++) {
+                size += mPostings[matched[w][i]].length;
+            }
+
+            if (size < driverSize) {
+                driverSize = size;
+                driver = w;
+            }
+        }
+
+        // Score in the high half, document in the low half: sorting orders both.
+        long scored[] = new long[(int) Math.min(driverSize, MAX_SCANNED_DOCS)];
+        int count = 0;
+        int scanned = 0;
+
+        // Closest tokens first, so the cap only ever drops the worse matches.
+        for (int d = 0; MAX_DISTANCE >= d; d++) {
+            for (int i = 0; matched[driver].length > i && scanned < scored.length; i++) {
+                if (distances[driver][i] != d) {
+                    continue;
+                }
+
+                int docs[] = mPostings[matched[driver][i]];
+
+                for (int j = 0; docs.length > j && scanned < scored.length; j++, scanned++) {
+                    int score = score(docs[j], matched, distances);
+
+                    if (score >= 0) {
+                        scored[count++] = ((long) score << 32) | docs[j];
+                    }
+                }
+            }
+        }
+
+        Arrays.sort(scored, 0, count);
+
+        long result[] = new long[Math.min(limit, count)];
+        int found = 0;
+
+        for (int i = 0; count > i && result.length > found; i++) {
+            // The same document shows up once per matching token of the driver.
+            if (i > 0 && scored[i] == scored[i - 1]) {
+                continue;
+            }
+
+            result[found++] = mIds[(int) scored[i]];
+        }
+
+        return found == result.length ? result : Arrays.copyOf(result, found);
+    }
+
+    // Edits tolerated in a word of the given length.
+    public static int maxDistance(int length) {
+        if (length <= 3) {
+            return 0;
+        }
+
+        return length <= 6 ? 1 : MAX_DISTANCE;
+    }
+
+    /*
+     * Sum over the words of the fewest edits between the word and a token of
+     * the document, or -1 when a word matches none of its tokens.
+     */
+    private int score(int doc, int matched[][], int distances[][]) {
+        int tokens[] = mDocTokens[doc];
+        int total = 0;
+
+        for (int w = 0; matched.length > w; w++) {
+            int best = Integer.MAX_VALUE;
+
+            for (int i = 0; tokens.length > i; i++) {
+                int at = Arrays.binarySearch(matched[w], tokens[i]);
+
+                if (at >= 0) {
+                    best = Math.min(best, distances[w][at]);
+                }
+            }
+
+            if (best == Integer.MAX_VALUE) {
+                return -1;
+            }
+
+            total += best;
+        }
+
+        return total;
+    }
+
+    /*
+     * Tokens within maxDistance() edits of the word, sorted by ordinal, and
+     * their distances. Tokens sharing too few bigrams with the word can't be
+     * that close and are never compared. When the word is the last one it
+     * only has to match the start of a token.
+     */
+    private void fuzzyTokens(String word, boolean prefix, int w, int matched[][], int distances[][]) {
+        int from = lowerBound(word);
+        int to = upperBound(word, from);
+        int maxDistance = maxDistance(word.length());
+
+        IntList tokens = new IntList();
+        IntList dists = new IntList();
+
+        if (prefix) {
+            for (int t = from; to > t; t++) {
+                tokens.add(t);
+                dists.add(0);
+            }
+        }else {
+            int exact = Arrays.binarySearch(mTokens, from, to, word);
+
+            if (exact >= 0) {
+                tokens.add(exact);
+                dists.add(0);
+            }
+        }
+
+        if (maxDistance > 0) {
+            int candidates[] = gramCandidates(word, maxDistance);
+            int row[] = new int[maxTokenLength + 1];
+            int previous[] = new int[maxTokenLength + 1];
+
+            for (int i = 0; candidates.length > i; i++) {
+                int t = candidates[i];
+
+                if (prefix ? t >= from && t < to : mTokens[t].equals(word)) {
+                    continue;
+                }
+
+                int distance = distance(word, mTokens[t], maxDistance, prefix, row, previous);
+
+                if (distance <= maxDistance) {
+                    tokens.add(t);
+                    dists.add(distance);
+                }
+            }
+        }
+
+        sortByToken(tokens, dists, w, matched, distances);
+    }
+
+    /*
+     * Tokens sharing at least grams - 2 * maxDistance bigrams with the word
+     * (one edit breaks at most two), those sharing the most first, at most
+     * MAX_FUZZY_TOKENS of them.
+     */
+    private int[] gramCandidates(String word, int maxDistance) {
+        int keys[] = grams(word);
+        int needed = Math.max(1, keys.length - 2 * maxDistance);
+        HashMap<Integer, int[]> shared = new HashMap<Integer, int[]>();
+
+        for (int i = 0; keys.length > i; i++) {
+            int tokens[] = mGrams.get(keys[i]);
+
+            if (tokens == null) {
+                continue;
+            }
+
+            for (int j = 0; tokens.length > j; j++) {
+                int count[] = shared.get(tokens[j]);
+
+                if (count == null) {
+                    shared.put(tokens[j], new int[] {1});
+                }else {
+                    count[0]++;
+                }
+            }
+        }
+
+        // Bucket by shared count, then read the buckets from the top.
+        IntList buckets[] = new IntList[keys.length + 1];
+
+        for (Map.Entry<Integer, int[]> entry : shared.entrySet()) {
+            int count = entry.getValue()[0];
+
+            if (count >= needed) {
+                if (buckets[count] == null) {
+                    buckets[count] = new IntList();
+                }
+
+                buckets[count].add(entry.getKey());
+            }
+        }
+
+        IntList candidates = new IntList();
+
+        for (int c = keys.length; c >= needed && candidates.size < MAX_FUZZY_TOKENS; c--) {
+            if (buckets[c] == null) {
+                continue;
+            }
+
+            for (int i = 0; buckets[c].size > i && candidates.size < MAX_FUZZY_TOKENS; i++) {
+                candidates.add(buckets[c].mValues[i]);
+            }
+        }
+
+        return Arrays.copyOf(candidates.mValues, candidates.size);
+    }
+
+    /*
+     * Levenshtein distance between word and token, or between word and the
+     * closest prefix of token. Gives up with maxDistance + 1 as soon as a
+     * whole row is over the bound.
+     */
+    private static int distance(String word, String token, int maxDistance, boolean prefix, int row[], int previous[]) {
+        int m = word.length();
+        int n = prefix ? Math.min(token.length(), m + maxDistance) : token.length();
+
+        if (!prefix && Math.abs(n - m) > maxDistance) {
+            return maxDistance + 1;
+        }
+
+        for (int j = 0; n >= j; j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; m >= i; i++) {
+            row[0] = i;
+            int rowMin = i;
+            char c = word.charAt(i - 1);
+
+            for (int j = 1; n >= j; j++) {
+                int cost = c == token.charAt(j - 1) ? 0 : 1;
+                row[j] = Math.min(Math.min(row[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, row[j]);
+            }
+
+            if (rowMin > maxDistance) {
+                return maxDistance + 1;
+            }
+
+            int swap[] = previous;
+            previous = row;
+            row = swap;
+        }
+
+        if (!prefix) {
+            return previous[n];
+        }
+
+        int best = maxDistance + 1;
+
+        for (int j = Math.max(0, m - maxDistance); n >= j; j++) {
+            best = Math.min(best, previous[j]);
+        }
+
+        return best;
+    }
+
+    private static void sortByToken(IntList tokens, IntList dists, int w, int matched[][], int distances[][]) {
+        long packed[] = new long[tokens.size];
+
+        for (int i = 0; tokens.size > i; i++) {
+            packed[i] = ((long) tokens.mValues[i] << 32) | dists.mValues[i];
+        }
+
+        Arrays.sort(packed);
+        matched[w] = new int[packed.length];
+        distances[w] = new int[packed.length];
+
+        for (int i = 0; packed.length > i; i++) {
+            matched[w][i] = (int) (packed[i] >>> 32);
+            distances[w][i] = (int) packed[i];
+        }
+    }
+
+    private static HashMap<Integer, int[]> indexGrams(String tokens[]) {
+        HashMap<Integer, IntList> grams = new HashMap<Integer, IntList>();
+
+        for (int t = 0; tokens.length > t; t++) {
+            int keys[] = grams(tokens[t]);
+
+            for (int i = 0; keys.length > i; i++) {
+                IntList list = grams.get(keys[i]);
+
+                if (list == null) {
+                    list = new IntList();
+                    grams.put(keys[i], list);
+                }
+
+                list.addUnique(t);
+            }
+        }
+
+        HashMap<Integer, int[]> frozen = new HashMap<Integer, int[]>(grams.size() * 2);
+
+        for (Map.Entry<Integer, IntList> entry : grams.entrySet()) {
+            frozen.put(entry.getKey(), entry.getValue().toSortedArray());
+        }
+
+        return frozen;
+    }
+
+    // Distinct bigrams of the token, the first one anchored to its start.
+    private static int[] grams(String token) {
+        int keys[] = new int[token.length()];
+        int count = 0;
+        char previous = 0;
+
+        for (int i = 0; token.length() > i; i++) {
+            int key = gramKey(previous, token.charAt(i));
+            boolean seen = false;
+
+            for (int j = 0; count > j && !seen; j++) {
+                seen = keys[j] == key;
+            }
+
+            if (!seen) {
+                keys[count++] = key;
+            }
+
+            previous = token.charAt(i);
+        }
+
+        return count == keys.length ? keys : Arrays.copyOf(keys, count);
+    }
+
+    private static int gramKey(char first, char second) {
+        return (first << 16) | second;
+    }
+
+    public int getDocumentCount() {
+        return mIds.length;
+    }
+
+    public int getTokenCount() {
+        return mTokens.length;
+    }
+
+    private long postingCount(int from, int to, long stopAt) {
+        long size = 0;
+
+        for (int t = from; to > t && size < stopAt; t++) {
+            size += mPostings[t].length;
+        }
+
+        return size;
+    }
+
+    private boolean matchesAll(int doc, int from[], int to[], int skip) {
+        int tokens[] = mDocTokens[doc];
+
+        for (int w = 0; from.length > w; w++) {
+            if (w == skip) {
+                continue;
+            }
+
+            int at = Arrays.binarySearch(tokens, from[w]);
+
+            if (at < 0) {
+                at = -at - 1;
+            }
+
+            if (at == tokens.length || tokens[at] >= to[w]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // First token >= prefix.
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = mTokens.length;
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+
+            if (mTokens[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            }else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    // First token from the lower bound on that does not start with prefix.
+    private int upperBound(String prefix, int from) {
+        int low = from;
+        int high = mTokens.length;
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+
+            if (mTokens[mid].startsWith(prefix)) {
+                low = mid + 1;
+            }else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    // One past the lower bound when the token there is the word itself.
+    private int exactBound(String word, int from) {
+        return from < mTokens.length && mTokens[from].equals(word) ? from + 1 : from;
+    }
+
+    /*
+     * Lower case, accents removed, split on anything that is not a letter
+     * or digit: "Hambúrguer X-Tudo" gives [hamburguer, x, tudo].
+     */
+    public static String[] tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return new String[0];
+        }
+
+        String normalized = normalize(text);
+        ArrayList<String> tokens = new ArrayList<String>();
+        int start = -1;
+
+        for (int i = 0; normalized.length() >= i; i++) {
+            boolean word = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+
+            if (word && start < 0) {
+                start = i;
+            }else if (!word && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+
+        return tokens.toArray(new String[tokens.size()]);
+    }
+
+    public static String normalize(String text) {
+        boolean ascii = true;
+
+        for (int i = 0; text.length() > i && ascii; i++) {
+            ascii = text.charAt(i) < 0x80;
+        }
+
+        // Most keystrokes are plain ASCII and need no decomposition.
+        if (ascii) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder builder = new StringBuilder(decomposed.length());
+
+        for (int i = 0; decomposed.length() > i; i++) {
+            char c = decomposed.charAt(i);
+
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                builder.append(c);
+            }
+        }
+
+        return builder.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /*
+     * Walks the union of several sorted posting lists in order, without
+     * duplicates, through a min-heap of list cursors. Only as much of the
+     * lists as the caller consumes is read.
+     */
+    private static class Merger {
+
+        private int mLists[][];
+        private int first;
+        // Heap of list numbers ordered by the document under their cursor.
+        private int mHeap[];
+        private int mCursors[];
+        private int size = 0;
+        private int last = -1;
+
+        Merger(int postings[][], int from, int to) {
+            mLists = postings;
+            first = from;
+            mHeap = new int[to - from];
+            mCursors = new int[to - from];
+
+            for (int t = from; to > t; t++) {
+                mHeap[size++] = t;
+            }
+
+            for (int i = (size >>> 1) - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        int next() {
+            while (size > 0) {
+                int list = mHeap[0];
+                int doc = head(0);
+
+                if (++mCursors[list - first] == mLists[list].length) {
+                    mHeap[0] = mHeap[--size];
+                }
+
+                siftDown(0);
+
+                if (doc != last) {
+                    last = doc;
+                    return doc;
+                }
+            }
+
+            return -1;
+        }
+
+        private int head(int i) {
+            int list = mHeap[i];
+            return mLists[list][mCursors[list - first]];
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+
+                if (left >= size) {
+                    return;
+                }
+
+                int child = left + 1 < size && head(left + 1) < head(left) ? left + 1 : left;
+
+                if (head(i) <= head(child)) {
+                    return;
+                }
+
+                int swap = mHeap[i];
+                mHeap[i] = mHeap[child];
+                mHeap[child] = swap;
+                i = child;
+            }
+        }
+
+    }
+
+    /*
+     * Collects (document, text) pairs; build() sorts the vocabulary and
+     * freezes everything into arrays.
+     */
+    public static class Builder {
+
+        private HashMap<String, IntList> mTokenDocs = new HashMap<String, IntList>();
+        private long mIds[];
+        private int documents = 0;
+
+        public Builder(int expectedDocuments) {
+            mIds = new long[Math.max(expectedDocuments, 1)];
+        }
+
+        public void add(int doc, long id, String text) {
+            if (doc >= mIds.length) {
+                mIds = Arrays.copyOf(mIds, Math.max(doc + 1, mIds.length * 2));
+            }
+
+            mIds[doc] = id;
+            documents = Math.max(documents, doc + 1);
+
+            String tokens[] = tokenize(text);
+
+            for (int i = 0; tokens.length > i; i++) {
+                IntList docs = mTokenDocs.get(tokens[i]);
+
+                if (docs == null) {
+                    docs = new IntList();
+                    mTokenDocs.put(tokens[i], docs);
+                }
+
+                docs.addUnique(doc);
+            }
+        }
+
+        public SearchIndex build() {
+            String tokens[] = mTokenDocs.keySet().toArray(new String[mTokenDocs.size()]);
+            Arrays.sort(tokens);
+
+            int postings[][] = new int[tokens.length][];
+            IntList docTokens[] = new IntList[documents];
+
+            for (int t = 0; tokens.length > t; t++) {
+                postings[t] = mTokenDocs.get(tokens[t]).toSortedArray();
+
+                for (int i = 0; postings[t].length > i; i++) {
+                    int doc = postings[t][i];
+
+                    if (docTokens[doc] == null) {
+                        docTokens[doc] = new IntList();
+                    }
+
+                    // Tokens are visited in order, so these come out sorted.
+                    docTokens[doc].addUnique(t);
+                }
+            }
+
+            int frozen[][] = new int[documents][];
+
+            for (int d = 0; documents > d; d++) {
+                frozen[d] = docTokens[d] == null ? NO_DOCS : docTokens[d].toSortedArray();
+            }
+
+            return new SearchIndex(tokens, postings, frozen, Arrays.copyOf(mIds, documents));
+        }
+
+    }
+
+    private static class IntList {
+
+        private int mValues[] = new int[4];
+        private int size = 0;
+
+        // Documents are usually added in order, so a repeat is the last value.
+        void addUnique(int value) {
+            if (size > 0 && mValues[size - 1] == value) {
+                return;
+            }
+
+            add(value);
+        }
+
+        void add(int value) {
+            if (size == mValues.length) {
+                mValues = Arrays.copyOf(mValues, size * 2);
+            }
+
+            mValues[size++] = value;
+        }
+
+        int[] toSortedArray() {
+            int values[] = Arrays.copyOf(mValues, size);
+            Arrays.sort(values);
+
+            int unique = 0;
+
+            for (int i = 0; values.length > i; i++) {
+                if (unique == 0 || values[unique - 1] != values[i]) {
+                    values[unique++] = values[i];
+                }
+            }
+
+            return unique == values.length ? values : Arrays.copyOf(values, unique);
+        }
+
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.mth.fastfood.utils;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.MainThread;
+import com.mth.fastfood.R;
+import com.mth.fastfood.inter.OnProductsLoadListener;
+import com.mth.fastfood.inter.OnSearchListener;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/*
+ * Turns keystrokes into catalog searches. A query only starts once the
+ * text has been still for the debounce delay, a newer keystroke cancels
+ * the pending or queued one, and results for anything but the latest
+ * text are dropped.
+ */
+public class SearchScheduler {
+    
+    private Searcher mSearcher;
+    private OnSearchListener mListener;
+    private Handler mMainHandler;
+    private long debounceMillis;
+    private int limit;
+    
+    // Main thread only.
+    private String mLatest = "";
+    private int generation = 0;
+    private Runnable mPending;
+    private Future<?> mRunning;
+    
+    public SearchScheduler(Context ctx, OnSearchListener listener) {
+        this(new Searcher() {
+            private CatalogRepository mCatalog = CatalogRepository.getInstance(ctx);
+            
+            @Override
+            public Future<?> search(String query, int limit, OnProductsLoadListener listener) {
+                return mCatalog.search(query, limit, listener);
+            }
+        }, new Handler(Looper.getMainLooper()), ctx.getResources().getInteger(R.integer.search_debounce_ms),
+            ctx.getResources().getInteger(R.integer.search_max_results), listener);
+    }
+    
+    // Tests pass their own searcher and the handler their clock drives.
+    SearchScheduler(Searcher searcher, Handler handler, long debounceMillis, int limit, OnSearchListener listener) {
+        this.mSearcher = searcher;
+        this.mMainHandler = handler;
+        this.debounceMillis = debounceMillis;
+        this.limit = limit;
+        this.mListener = listener;
+    }
+    
+    @MainThread
+    public void onInput(String text) {
+        final String query = text.trim();
+        
+        if (query.equals(mLatest)) {
+            return;
+        }
+        
+        cancel();
+        mLatest = query;
+        
+        final int current = ++generation;
+        
+        if (query.isEmpty()) {
+            mListener.onResult(query, Collections.<ProductArray>emptyList());
+            return;
+        }
+        
+        mPending = new Runnable() {
+            @Override
+            public void run() {
+                mPending = null;
+                mRunning = mSearcher.search(query, limit, new OnProductsLoadListener() {
+                    @Override
+                    public void onLoad(List<ProductArray> products) {
+                        deliver(current, query, products);
+                    }
+                });
+            }
+        };
+        mMainHandler.postDelayed(mPending, debounceMillis);
+    }
+    
+    private void deliver(int forGeneration, String query, List<ProductArray> products) {
+        if (forGeneration != generation || !query.equals(mLatest)) {
+            return;
+        }
+        
+        mRunning = null;
+        mListener.onResult(query, products);
+    }
+    
+    // Drops the pending and queued query; an already delivered one stays.
+    @MainThread
+    public void cancel() {
+        generation++;
+        
+        if (mPending != null) {
+            mMainHandler.removeCallbacks(mPending);
+            mPending = null;
+        }
+        
+        if (mRunning != null) {
+            mRunning.cancel(false);
+            mRunning = null;
+        }
+    }
+    
+    public String getLatest() {
+        return mLatest;
+    }
+    
+    // Runs a query off the main thread and posts the products back to it.
+    interface Searcher {
+        
+        Future<?> search(String query, int limit, OnProductsLoadListener listener);
+        
+    }
+    
+}
@@ -1,16 +1,59 @@
 package com.mth.fastfood.utils;
 
+import androidx.annotation.MainThread;
+import java.util.ArrayDeque;
+
 public class SearchSuggestions {
     
-    public static final String TYPE_HISTORIC = "history";
-    public static final String TYPE_SUGGESTIONS = "suggestions";
+    // Also the adapter view types, so each kind of row has its own holders.
+    public static final int TYPE_HISTORIC = 0;
+    public static final int TYPE_SUGGESTIONS = 1;
+    
+    private static final int POOL_SIZE = 32;
+    private static final ArrayDeque<SearchSuggestions> sPool = new ArrayDeque<SearchSuggestions>(POOL_SIZE);
     
     private int id;
     private String name;
-    private String type;
+    private int type;
+    private boolean pooled = false;
     
     public SearchSuggestions() {}
     
+    /*
+     * An item from the pool, for rows rebuilt on every keystroke. Give it
+     * back with recycle() once no list holds it.
+     */
+    @MainThread
+    public static SearchSuggestions obtain(int id, String name, int type) {
+        SearchSuggestions item = sPool.pollLast();
+        
+        if (item == null) {
+            item = new SearchSuggestions();
+        }
+        
+        item.setID(id);
+        item.setName(name);
+        item.setType(type);
+        item.pooled = true;
+        
+        return item;
+    }
+    
+    // Only items from obtain() go back to the pool, others are left alone.
+    @MainThread
+    public void recycle() {
+        if (!pooled) {
+            return;
+        }
+        
+        pooled = false;
+        name = null;
+        
+        if (sPool.size() < POOL_SIZE) {
+            sPool.addLast(this);
+        }
+    }
+    
     public void setID(int value) {
         this.id = value;
     }
@@ -19,7 +62,7 @@ public class SearchSuggestions {
         this.name = value;
     }
     
-    public void setType(String value) {
+    public void setType(int value) {
         this.type = value;
     }
     
@@ -31,8 +74,12 @@ public class SearchSuggestions {
         return this.name;
     }
     
-    public String getType() {
+    public int getType() {
         return this.type;
     }
     
+    public boolean isSameSuggestion(SearchSuggestions other) {
+        return other != null && id == other.id && type == other.type;
+    }
+    
 }
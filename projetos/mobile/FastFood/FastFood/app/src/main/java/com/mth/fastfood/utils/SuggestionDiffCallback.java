@@ -0,0 +1,37 @@
+package com.mth.fastfood.utils;
+
+import androidx.recyclerview.widget.DiffUtil;
+import java.util.List;
+
+public class SuggestionDiffCallback extends DiffUtil.Callback {
+    
+    private List<SearchSuggestions> old_list;
+    private List<SearchSuggestions> new_list;
+    
+    public SuggestionDiffCallback(List<SearchSuggestions> oldList, List<SearchSuggestions> newList) {
+        this.old_list = oldList;
+        this.new_list = newList;
+    }
+    
+    @Override
+    public int getOldListSize() {
+        return old_list.size();
+    }
+    
+    @Override
+    public int getNewListSize() {
+        return new_list.size();
+    }
+    
+    @Override
+    public boolean areItemsTheSame(int oldPosition, int newPosition) {
+        return old_list.get(oldPosition).isSameSuggestion(new_list.get(newPosition));
+    }
+    
+    @Override
+    public boolean areContentsTheSame(int oldPosition, int newPosition) {
+        String oldName = old_list.get(oldPosition).getName();
+        return oldName != null && oldName.equals(new_list.get(newPosition).getName());
+    }
+    
+}
@@ -0,0 +1,76 @@
+package com.mth.fastfood.utils;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.graphics.drawable.Drawable;
+import androidx.core.content.ContextCompat;
+
+/*
+ * One action behind a swiped row: the id handed back when it is
+ * performed, the colour that fills the uncovered area and a white icon.
+ */
+public class SwipeAction {
+    
+    private int id;
+    private int color;
+    private Drawable mIcon;
+    private int iconWidth;
+    private int iconHeight;
+    
+    // Icon placement for rows of rowHeight, worked out again only when it changes.
+    private int rowHeight = -1;
+    private int iconTop;
+    private int iconMargin;
+    
+    public SwipeAction(Context ctx, int id, int iconRes, int colorRes) {
+        this.id = id;
+        this.color = ContextCompat.getColor(ctx, colorRes);
+        // Mutated, not to tint the icon wherever else it is used.
+        this.mIcon = ContextCompat.getDrawable(ctx, iconRes).mutate();
+        this.mIcon.setTint(Color.WHITE);
+        this.iconWidth = mIcon.getIntrinsicWidth();
+        this.iconHeight = mIcon.getIntrinsicHeight();
+    }
+    
+    public int getId() {
+        return id;
+    }
+    
+    int getColor() {
+        return color;
+    }
+    
+    Drawable getIcon() {
+        return mIcon;
+    }
+    
+    int getIconWidth() {
+        return iconWidth;
+    }
+    
+    int getIconHeight() {
+        return iconHeight;
+    }
+    
+    // Offset of the icon from the top of the row, and from the edge it is drawn at.
+    int getIconTop(int height) {
+        layout(height);
+        return iconTop;
+    }
+    
+    int getIconMargin(int height) {
+        layout(height);
+        return iconMargin;
+    }
+    
+    private void layout(int height) {
+        if (height == rowHeight) {
+            return;
+        }
+        
+        rowHeight = height;
+        iconTop = (height - iconHeight) / 2;
+        iconMargin = iconTop;
+    }
+    
+}
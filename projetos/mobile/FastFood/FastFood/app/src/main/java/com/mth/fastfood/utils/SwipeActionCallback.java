@@ -0,0 +1,153 @@
+package com.mth.fastfood.utils;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.view.View;
+import androidx.recyclerview.widget.ItemTouchHelper;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.RecyclerView.ViewHolder;
+
+/*
+ * Swipe handling for list rows with actions behind them, given for each
+ * direction. The action shows at the edge the row moves away from. When a
+ * direction has several, the way left after the swipe threshold is split
+ * between them and the one showing as the row is let go is performed.
+ *
+ * Drawing runs every frame of a swipe: it only reads state prepared by
+ * the constructor and the actions, and allocates nothing.
+ */
+abstract public class SwipeActionCallback extends ItemTouchHelper.Callback {
+    
+    private static final float SWIPE_THRESHOLD = 0.7f;
+    
+    private SwipeAction mLeftActions[];
+    private SwipeAction mRightActions[];
+    private Paint mPaint = new Paint();
+    
+    // Action showing while the row was last held, by direction and index.
+    private int armedDirection = 0;
+    private int armedIndex = 0;
+    
+    // Actions revealed by swiping left and right; either may be null.
+    public SwipeActionCallback(SwipeAction leftActions[], SwipeAction rightActions[]) {
+        this.mLeftActions = leftActions != null ? leftActions : new SwipeAction[0];
+        this.mRightActions = rightActions != null ? rightActions : new SwipeAction[0];
+        this.mPaint.setStyle(Paint.Style.FILL);
+    }
+    
+    // Called once the row has left, with the action it was swiped for.
+    public abstract void onAction(ViewHolder holder, SwipeAction action);
+    
+    @Override
+    public int getMovementFlags(RecyclerView recycler, ViewHolder holder) {
+        int flags = 0;
+        
+        if (mLeftActions.length > 0) {
+            flags |= ItemTouchHelper.LEFT;
+        }
+        
+        if (mRightActions.length > 0) {
+            flags |= ItemTouchHelper.RIGHT;
+        }
+        
+        return makeMovementFlags(0, flags);
+    }
+    
+    @Override
+    public boolean onMove(RecyclerView recycler, ViewHolder holder1, ViewHolder holder2) {
+        return false;
+    }
+    
+    @Override
+    public void onSelectedChanged(ViewHolder holder, int actionState) {
+        super.onSelectedChanged(holder, actionState);
+        
+        if (actionState == ItemTouchHelper.ACTION_STATE_SWIPE) {
+            armedDirection = 0;
+            armedIndex = 0;
+        }
+    }
+    
+    @Override
+    public void onSwiped(ViewHolder holder, int direction) {
+        SwipeAction actions[] = direction == ItemTouchHelper.LEFT ? mLeftActions : mRightActions;
+        // A fling can finish a swipe that never reached the threshold.
+        int index = direction == armedDirection ? armedIndex : 0;
+        
+        onAction(holder, actions[index]);
+    }
+    
+    @Override
+    public void onChildDraw(Canvas canvas, RecyclerView recycler, ViewHolder holder, float dX, float dY, int actionState, boolean isCurrentlyActive) {
+        if (actionState == ItemTouchHelper.ACTION_STATE_SWIPE && dX != 0) {
+            drawAction(canvas, holder.itemView, dX, isCurrentlyActive);
+        }
+        
+        super.onChildDraw(canvas, recycler, holder, dX, dY, actionState, isCurrentlyActive);
+    }
+    
+    private void drawAction(Canvas canvas, View itemView, float dX, boolean isCurrentlyActive) {
+        int direction = dX < 0 ? ItemTouchHelper.LEFT : ItemTouchHelper.RIGHT;
+        SwipeAction actions[] = direction == ItemTouchHelper.LEFT ? mLeftActions : mRightActions;
+        
+        if (actions.length == 0 || itemView.getWidth() == 0) {
+            return;
+        }
+        
+        int index;
+        
+        if (isCurrentlyActive) {
+            index = actionAt(actions.length, Math.abs(dX) / itemView.getWidth());
+            armedDirection = direction;
+            armedIndex = index;
+        }else {
+            // Settling after release: keep what was showing.
+            index = direction == armedDirection ? armedIndex : 0;
+        }
+        
+        SwipeAction action = actions[index];
+        int height = itemView.getHeight();
+        int top = itemView.getTop();
+        int bottom = itemView.getBottom();
+        float left;
+        float right;
+        int iconLeft;
+        
+        if (direction == ItemTouchHelper.LEFT) {
+            left = itemView.getRight() + dX;
+            right = itemView.getRight();
+            iconLeft = itemView.getRight() - action.getIconMargin(height) - action.getIconWidth();
+        }else {
+            left = itemView.getLeft();
+            right = itemView.getLeft() + dX;
+            iconLeft = itemView.getLeft() + action.getIconMargin(height);
+        }
+        
+        mPaint.setColor(action.getColor());
+        canvas.drawRect(left, top, right, bottom, mPaint);
+        
+        int iconTop = top + action.getIconTop(height);
+        
+        // The icon is uncovered together with the background, not drawn over the row.
+        canvas.save();
+        canvas.clipRect(left, top, right, bottom);
+        action.getIcon().setBounds(iconLeft, iconTop, iconLeft + action.getIconWidth(), iconTop + action.getIconHeight());
+        action.getIcon().draw(canvas);
+        canvas.restore();
+    }
+    
+    // Below the threshold the first action shows; past it, one band per action.
+    private static int actionAt(int count, float fraction) {
+        if (fraction < SWIPE_THRESHOLD) {
+            return 0;
+        }
+        
+        int index = (int) ((fraction - SWIPE_THRESHOLD) / (1 - SWIPE_THRESHOLD) * count);
+        return Math.min(index, count - 1);
+    }
+    
+    @Override
+    public float getSwipeThreshold(ViewHolder holder) {
+        return SWIPE_THRESHOLD;
+    }
+}
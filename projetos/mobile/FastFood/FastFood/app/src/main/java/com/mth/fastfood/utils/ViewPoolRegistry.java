@@ -0,0 +1,127 @@
+package com.mth.fastfood.utils;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.util.SparseIntArray;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import androidx.annotation.MainThread;
+import androidx.recyclerview.widget.RecyclerView;
+import com.mth.fastfood.R;
+
+/*
+ * App-scoped RecycledViewPool, so rows inflated on one screen are reused by
+ * the next one instead of being thrown away on every navigation.
+ *
+ * View types are layout ids, and a layout must always be bound by the same
+ * adapter class. Holders outlive the screen that created them, so adapters
+ * using the pool inflate through getInflater() (application context with the
+ * app theme) and their ViewHolders reach the adapter via getBindingAdapter().
+ * Screens hand their rows back with swapAdapter(null, true) when destroyed.
+ */
+public class ViewPoolRegistry implements ComponentCallbacks2 {
+    
+    // RecycledViewPool's own limit for a view type nobody configured.
+    private static final int DEFAULT_MAX_SCRAP = 5;
+    
+    private static ViewPoolRegistry sInstance;
+    
+    private Context mContext;
+    private LayoutInflater mInflater;
+    private SharedPool mPool = new SharedPool();
+    private SparseIntArray mMaxScrap = new SparseIntArray();
+    
+    private ViewPoolRegistry(Context ctx) {
+        this.mContext = new ContextThemeWrapper(ctx.getApplicationContext(), R.style.Theme_Application);
+        this.mInflater = LayoutInflater.from(mContext);
+    }
+    
+    public static synchronized ViewPoolRegistry getInstance(Context ctx) {
+        if (sInstance == null) {
+            sInstance = new ViewPoolRegistry(ctx);
+            ctx.getApplicationContext().registerComponentCallbacks(sInstance);
+        }
+        
+        return sInstance;
+    }
+    
+    public RecyclerView.RecycledViewPool getPool() {
+        return mPool;
+    }
+    
+    public LayoutInflater getInflater() {
+        return mInflater;
+    }
+    
+    @MainThread
+    public void setMaxRecycledViews(int layoutRes, int max) {
+        if (mMaxScrap.get(layoutRes) >= max) {
+            return;
+        }
+        
+        mMaxScrap.put(layoutRes, max);
+        mPool.setMaxRecycledViews(layoutRes, max);
+    }
+    
+    public int getMaxRecycledViews(int layoutRes) {
+        return mMaxScrap.get(layoutRes, DEFAULT_MAX_SCRAP);
+    }
+    
+    /*
+     * Tops the pool up to count holders of the given layout, one per idle
+     * pass of the main looper so it never delays a frame. Stops once the
+     * recycler has dropped its adapter.
+     */
+    @MainThread
+    public void prewarm(final RecyclerView parent, final RecyclerView.Adapter<?> adapter, final int layoutRes, final int count) {
+        setMaxRecycledViews(layoutRes, count);
+        
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            @Override
+            public boolean queueIdle() {
+                if (parent.getAdapter() == null || mPool.getRecycledViewCount(layoutRes) >= count) {
+                    return false;
+                }
+                
+                mPool.putRecycledView(adapter.createViewHolder(parent, layoutRes));
+                return true;
+            }
+        });
+    }
+    
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_BACKGROUND || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            mPool.evictAll();
+        }
+    }
+    
+    @Override
+    public void onLowMemory() {
+        mPool.evictAll();
+    }
+    
+    @Override
+    public void onConfigurationChanged(Configuration config) {
+        // Rows inflated for the old configuration (night mode, font scale) are stale.
+        mPool.evictAll();
+    }
+    
+    private static class SharedPool extends RecyclerView.RecycledViewPool {
+        
+        // RecyclerView clears the pool when it gets a new adapter while no
+        // other adapter is attached, which is exactly the moment a screen
+        // change needs the holders to survive.
+        @Override
+        public void clear() {}
+        
+        void evictAll() {
+            super.clear();
+        }
+        
+    }
+    
+}
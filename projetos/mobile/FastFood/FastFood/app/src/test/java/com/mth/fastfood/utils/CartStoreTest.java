@@ -0,0 +1,236 @@
+package com.mth.fastfood.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/*
+ * Every store here runs over its own scratch directory. A second store on
+ * the same directory is the app started again: it only knows what the
+ * first one journaled.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CartStoreTest {
+    
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+    
+    private File mDirectory;
+    
+    @Before
+    public void setUp() throws Exception {
+        mDirectory = mFolder.newFolder("files");
+    }
+    
+    private static ProductArray product(long id, long price) {
+        return new ProductArray(id, 0, "Produto " + id, "", "", "", price);
+    }
+    
+    private CartStore open() throws Exception {
+        CartStore store = new CartStore(mDirectory);
+        store.flush();
+        return store;
+    }
+    
+    @Test
+    public void keepsTotalsInCents() throws Exception {
+        CartStore store = open();
+        
+        store.add(product(1, 1999));
+        store.add(product(1, 1999));
+        store.add(product(2, 5));
+        store.add(product(3, 990));
+        
+        assertEquals(2 * 1999 + 5 + 990, store.getTotal());
+        assertEquals(4, store.getItemCount());
+        
+        store.setQuantity(2, 7);
+        store.remove(3);
+        
+        assertEquals(2 * 1999 + 7 * 5, store.getTotal());
+        assertEquals(9, store.getItemCount());
+        assertEquals(7 * 5, store.getLine(2).getSubtotal());
+        
+        // A quantity below one removes the line.
+        store.setQuantity(1, 0);
+        
+        assertNull(store.getLine(1));
+        assertEquals(35, store.getTotal());
+        assertEquals(sum(store.getLines()), store.getTotal());
+    }
+    
+    @Test
+    public void keepsTheAddedPriceOfALine() throws Exception {
+        CartStore store = open();
+        
+        store.add(product(1, 1000));
+        // The product got dearer: the line keeps the price it was added at.
+        store.add(product(1, 1200));
+        
+        assertEquals(1000, store.getLine(1).getUnitPrice());
+        assertEquals(2000, store.getTotal());
+    }
+    
+    @Test
+    public void replaysTheJournal() throws Exception {
+        CartStore store = open();
+        
+        store.add(product(1, 2590));
+        store.add(product(2, 4990));
+        store.add(product(3, 700));
+        store.setQuantity(2, 3);
+        store.remove(1);
+        store.flush();
+        
+        CartStore again = open();
+        
+        assertEquals(store.getLines(), again.getLines());
+        assertEquals(3 * 4990 + 700, again.getTotal());
+        assertEquals(4, again.getItemCount());
+    }
+    
+    @Test
+    public void restoresARemovalInPlaceAfterReplay() throws Exception {
+        CartStore store = open();
+        
+        for (long id = 1; 5 >= id; id++) {
+            store.add(product(id, 100 * id));
+        }
+        
+        CartStore.Removal removal = store.removeAll(new long[] { 2, 4 }, null);
+        store.restore(removal);
+        store.flush();
+        
+        assertEquals(2, removal.size());
+        assertEquals(ids(store.getLines()), ids(open().getLines()));
+        assertEquals("1 2 3 4 5", ids(store.getLines()));
+        assertEquals(1500, store.getTotal());
+    }
+    
+    @Test
+    public void skipsMalformedJournalLines() throws Exception {
+        journal("cart-v2", "ADD 1 2 1000", "ADD x 1 5", "SET 1", "REMOVE", "ADD 2 1 250", "SET 2 4");
+        
+        CartStore store = open();
+        
+        assertEquals("1 2", ids(store.getLines()));
+        assertEquals(2 * 1000 + 4 * 250, store.getTotal());
+    }
+    
+    @Test
+    public void startsEmptyOnAnotherJournalFormat() throws Exception {
+        journal("cart-v1", "ADD 1 2 1000");
+        
+        CartStore store = open();
+        
+        assertEquals(0, store.size());
+        assertEquals(0, store.getTotal());
+    }
+    
+    @Test
+    public void compactsALongJournal() throws Exception {
+        CartStore store = open();
+        
+        store.add(product(1, 300));
+        store.add(product(2, 450));
+        
+        // Far past the compaction threshold, ending where it began.
+        for (int i = 0; 600 > i; i++) {
+            store.setQuantity(1, 1 + i % 5);
+        }
+        
+        store.setQuantity(1, 1);
+        store.flush();
+        
+        List<String> lines = Files.readAllLines(new File(mDirectory, "cart.journal").toPath(), StandardCharsets.UTF_8);
+        
+        // Uncompacted, it would hold all 603 operations.
+        assertTrue(lines.size() + " journal lines", lines.size() < 600);
+        assertEquals("cart-v2", lines.get(0));
+        assertEquals(store.getLines(), open().getLines());
+        assertEquals(750, open().getTotal());
+    }
+    
+    @Test
+    public void keepsChangesMadeBeforeTheJournalIsRead() throws Exception {
+        journal("cart-v2", "ADD 1 1 500");
+        
+        // Not flushed: the add may be queued ahead of the load.
+        CartStore store = new CartStore(mDirectory);
+        store.add(product(2, 100));
+        store.flush();
+        
+        assertTrue(store.isLoaded());
+        assertEquals("1 2", ids(store.getLines()));
+        assertEquals(600, store.getTotal());
+    }
+    
+    @Test
+    public void removesNothingBeforeLoading() throws Exception {
+        journal("cart-v2", "ADD 1 2 1000", "ADD 2 1 250");
+        
+        CartStore store = new CartStore(mDirectory);
+        CartStore.Removal removal;
+        
+        // load() can't mark the cart loaded while the lock is held here.
+        synchronized (store) {
+            assumeFalse("loaded before the lock was taken", store.isLoaded());
+            
+            CartStore.Removal batch = new CartStore.Removal();
+            removal = store.removeAll(new long[] { 1 }, batch);
+            assertSame(batch, removal);
+        }
+        
+        store.flush();
+        
+        // Nothing to undo, and so nothing gone.
+        assertEquals(0, removal.size());
+        assertEquals("1 2", ids(store.getLines()));
+        assertEquals(2250, store.getTotal());
+    }
+    
+    private void journal(String... lines) throws Exception {
+        FileOutputStream out = new FileOutputStream(new File(mDirectory, "cart.journal"));
+        
+        try {
+            out.write((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+        }finally {
+            out.close();
+        }
+    }
+    
+    static long sum(List<CartLine> lines) {
+        long total = 0;
+        
+        for (int i = 0; lines.size() > i; i++) {
+            total += lines.get(i).getSubtotal();
+        }
+        
+        return total;
+    }
+    
+    private static String ids(List<CartLine> lines) {
+        StringBuilder builder = new StringBuilder();
+        
+        for (int i = 0; lines.size() > i; i++) {
+            builder.append(i == 0 ? "" : " ").append(lines.get(i).getProductID());
+        }
+        
+        return builder.toString();
+    }
+    
+}
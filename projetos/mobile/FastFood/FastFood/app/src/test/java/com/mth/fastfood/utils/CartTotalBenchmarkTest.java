@@ -0,0 +1,102 @@
+package com.mth.fastfood.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/*
+ * What the cart screen pays as the cart grows: reading the kept-up total
+ * against summing the lines again, a quantity change followed by a read,
+ * and a line removed and added back. The figures go to the test output.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CartTotalBenchmarkTest {
+    
+    private static final int SIZES[] = { 100, 1000, 10000 };
+    private static final int READS = 200000;
+    private static final int SUMS = 200;
+    private static final int CHANGES = 2000;
+    private static final int MOVES = 500;
+    
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+    
+    @Test
+    public void changesCostLessThanSummingTheCart() throws Exception {
+        long sum = 0;
+        long change = 0;
+        long move = 0;
+        
+        for (int s = 0; SIZES.length > s; s++) {
+            int size = SIZES[s];
+            CartStore store = new CartStore(mFolder.newFolder("cart" + size));
+            store.flush();
+            
+            for (int i = 0; size > i; i++) {
+                store.add(new ProductArray(i + 1, 0, "", "", "", "", 100 + i));
+            }
+            
+            store.flush();
+            
+            // Twice, the first pass warms the JIT.
+            long read = 0;
+            
+            for (int pass = 0; 2 > pass; pass++) {
+                long blackhole = 0;
+                long start = System.nanoTime();
+                
+                for (int i = 0; READS > i; i++) {
+                    blackhole += store.getTotal();
+                }
+                
+                read = (System.nanoTime() - start) / READS;
+                start = System.nanoTime();
+                
+                for (int i = 0; SUMS > i; i++) {
+                    blackhole -= CartStoreTest.sum(store.getLines());
+                }
+                
+                sum = (System.nanoTime() - start) / SUMS;
+                start = System.nanoTime();
+                
+                for (int i = 0; CHANGES > i; i++) {
+                    long id = 1 + (i * 7919L) % size;
+                    store.setQuantity(id, 1 + i % 3);
+                    blackhole += store.getTotal();
+                }
+                
+                change = (System.nanoTime() - start) / CHANGES;
+                start = System.nanoTime();
+                
+                // From anywhere in the cart, the line comes back at the end.
+                for (int i = 0; MOVES > i; i++) {
+                    CartLine line = store.getLine(1 + (i * 7919L) % size);
+                    store.remove(line.getProductID());
+                    store.add(new ProductArray(line.getProductID(), 0, "", "", "", "", line.getUnitPrice()));
+                    blackhole += store.getTotal();
+                }
+                
+                move = (System.nanoTime() - start) / MOVES;
+                
+                // Keeps the loops from being optimized away.
+                assertTrue(blackhole != Long.MIN_VALUE);
+            }
+            
+            store.flush();
+            assertEquals(CartStoreTest.sum(store.getLines()), store.getTotal());
+            
+            System.out.println("CartTotalBenchmark: " + size + " lines, getTotal() " + read + "ns, summing the lines "
+                + (sum / 1000) + "us, quantity change and total " + (change / 1000) + "us, remove and add "
+                + (move / 1000) + "us");
+        }
+        
+        // On the largest cart a change finds its line without walking them as a sum has to.
+        assertTrue(change < sum);
+    }
+    
+}
@@ -0,0 +1,62 @@
+package com.mth.fastfood.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+import android.database.Cursor;
+import androidx.test.core.app.ApplicationProvider;
+import java.io.IOException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class CatalogDatabaseTest {
+    
+    private static CatalogFile catalog(int dataVersion, long price) throws IOException {
+        return new CatalogFile(new CatalogWriter()
+            .product(1, "hamburguer_01", "Hambúrguer", "Rua A", "Empresa", "18h", price)
+            .category(1, "Hambúrguer 1", "ic_hamburguer_01", 1)
+            .featured(1)
+            .build(dataVersion));
+    }
+    
+    private static long price(CatalogDatabase db) {
+        Cursor cursor = db.queryProduct(1);
+        
+        try {
+            cursor.moveToFirst();
+            return cursor.getLong(6);
+        }finally {
+            cursor.close();
+        }
+    }
+    
+    @Test
+    public void newerCatalogRebuildsTheTables() throws IOException {
+        Context ctx = ApplicationProvider.getApplicationContext();
+        
+        CatalogDatabase db = new CatalogDatabase(ctx, catalog(3, 1000));
+        assertEquals(1000, price(db));
+        db.close();
+        
+        db = new CatalogDatabase(ctx, catalog(4, 2000));
+        assertEquals(2000, price(db));
+        db.close();
+    }
+    
+    @Test
+    public void olderCatalogRebuildsTheTables() throws IOException {
+        Context ctx = ApplicationProvider.getApplicationContext();
+        
+        CatalogDatabase db = new CatalogDatabase(ctx, catalog(5, 1000));
+        assertEquals(1000, price(db));
+        db.close();
+        
+        // Without onDowngrade, SQLiteOpenHelper throws here.
+        db = new CatalogDatabase(ctx, catalog(2, 3000));
+        assertEquals(3000, price(db));
+        db.close();
+    }
+    
+}
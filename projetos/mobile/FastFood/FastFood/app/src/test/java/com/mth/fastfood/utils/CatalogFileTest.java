@@ -0,0 +1,102 @@
+package com.mth.fastfood.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.junit.Test;
+
+public class CatalogFileTest {
+    
+    private static CatalogWriter sample() {
+        return new CatalogWriter()
+            .product(10, "hamburguer_01", "Hambúrguer duplo", "Rua A", "Empresa", "18h", 2590)
+            .product(20, "pizza_01", "Pizza média", "Rua A", "Empresa", "18h", 4990)
+            .product(30, "copo_01", "Refrigerante", "Rua B", "Outra", "10h", 700)
+            .category(1, "Hambúrguer", "ic_hamburguer_01", 10)
+            .category(4, "Pizza", "ic_pizza_01", 20, 10)
+            .category(3, "Vazia", "ic_copos")
+            .featured(30, 20);
+    }
+    
+    @Test
+    public void readsHeaderCounts() throws IOException {
+        CatalogFile file = new CatalogFile(sample().build(7));
+        
+        assertEquals(7, file.getDataVersion());
+        assertEquals(3, file.getProductCount());
+        assertEquals(3, file.getCategoryCount());
+        assertEquals(2, file.getFeaturedCount());
+    }
+    
+    @Test
+    public void readsProductRecords() throws IOException {
+        CatalogFile file = new CatalogFile(sample().build(1));
+        
+        assertEquals(20, file.getProductId(1));
+        assertEquals("pizza_01", file.getProductImage(1));
+        assertEquals("Pizza média", file.getProductTitle(1));
+        assertEquals("Rua A", file.getProductAdrress(1));
+        assertEquals("Empresa", file.getProductCampanyName(1));
+        assertEquals("18h", file.getProductCampanyHour(1));
+        assertEquals(4990, file.getProductPrice(1));
+        assertEquals("Hambúrguer duplo", file.getProductTitle(0));
+    }
+    
+    @Test
+    public void readsCategoriesInOrder() throws IOException {
+        CatalogFile file = new CatalogFile(sample().build(1));
+        
+        assertEquals(4, file.getCategoryId(1));
+        assertEquals("Pizza", file.getCategoryName(1));
+        assertEquals("ic_pizza_01", file.getCategoryIcon(1));
+        assertEquals(2, file.getCategorySize(1));
+        // Positions hold product indexes, not ids.
+        assertEquals(1, file.getCategoryProduct(1, 0));
+        assertEquals(0, file.getCategoryProduct(1, 1));
+        assertEquals(0, file.getCategorySize(2));
+        
+        assertEquals(2, file.getFeaturedProduct(0));
+        assertEquals(1, file.getFeaturedProduct(1));
+    }
+    
+    @Test
+    public void sharesRepeatedStrings() throws IOException {
+        ByteBuffer once = new CatalogWriter().product(1, "a", "Empresa", "Empresa", "Empresa", "Empresa", 1).build(1);
+        ByteBuffer distinct = new CatalogWriter().product(1, "a", "Empresa1", "Empresa2", "Empresa3", "Empresa4", 1).build(1);
+        
+        assertEquals("Empresa", new CatalogFile(once).getProductCampanyHour(0));
+        // Four distinct strings of 2 + 8 bytes against a single one of 2 + 7.
+        assertEquals(4 * (2 + 8) - (2 + 7), distinct.capacity() - once.capacity());
+    }
+    
+    @Test
+    public void rejectsAnotherMagic() {
+        assertRejected(sample().build(0x12345678, 3, 1));
+    }
+    
+    @Test
+    public void rejectsAnotherFormatVersion() {
+        assertRejected(sample().build(0x46464354, 2, 1));
+    }
+    
+    @Test
+    public void rejectsTruncatedFiles() {
+        ByteBuffer full = sample().build(1);
+        ByteBuffer truncated = ByteBuffer.wrap(full.array(), 0, 40).slice();
+        
+        assertRejected(truncated);
+        assertRejected(ByteBuffer.allocate(4));
+    }
+    
+    private static void assertRejected(ByteBuffer buffer) {
+        try {
+            new CatalogFile(buffer);
+            fail("accepted a bad catalog");
+        }catch (IOException e) {
+            // expected
+        }
+    }
+    
+}
@@ -0,0 +1,120 @@
+package com.mth.fastfood.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/*
+ * Time to the first page of products with a large synthetic catalog: the
+ * memory-mapped binary file against parsing the same data as JSON. Runs on
+ * Robolectric for a working org.json; the figures go to the test output.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CatalogLoadBenchmarkTest {
+    
+    private static final int PRODUCTS = 20000;
+    private static final int PAGE = 20;
+    private static final int ROUNDS = 5;
+    
+    @Test
+    public void mappedFileReachesFirstPageBeforeJson() throws Exception {
+        CatalogWriter writer = new CatalogWriter();
+        StringBuilder json = new StringBuilder("{\"version\": 1, \"products\": [");
+        
+        for (int i = 0; PRODUCTS > i; i++) {
+            String title = "Produto número " + i + " com um título de tamanho médio";
+            
+            writer.product(i + 1, "variados_" + (i % 10), title, "Endereço " + (i % 50), "Empresa " + (i % 200), "Empresa Horário", 990 + i);
+            json.append(i == 0 ? "" : ",").append("{\"id\": ").append(i + 1)
+                .append(", \"image\": \"variados_").append(i % 10)
+                .append("\", \"title\": \"").append(title)
+                .append("\", \"adrress\": \"Endereço ").append(i % 50)
+                .append("\", \"campanyName\": \"Empresa ").append(i % 200)
+                .append("\", \"campanyHour\": \"Empresa Horário\", \"price\": ").append(990 + i).append('}');
+        }
+        
+        json.append("]}");
+        
+        String text = json.toString();
+        ByteBuffer mapped = map(writer.build(1));
+        
+        long jsonNanos = Long.MAX_VALUE;
+        long fileNanos = Long.MAX_VALUE;
+        
+        // Best of a few rounds, the first ones warm the JIT.
+        for (int round = 0; ROUNDS > round; round++) {
+            long start = System.nanoTime();
+            assertEquals(PAGE, firstPageFromJson(text).size());
+            jsonNanos = Math.min(jsonNanos, System.nanoTime() - start);
+            
+            start = System.nanoTime();
+            assertEquals(PAGE, firstPageFromFile(mapped).size());
+            fileNanos = Math.min(fileNanos, System.nanoTime() - start);
+        }
+        
+        System.out.println("CatalogLoadBenchmark: " + PRODUCTS + " products, first page in "
+            + (jsonNanos / 1000) + "us from JSON, " + (fileNanos / 1000) + "us from the mapped file");
+        
+        assertTrue(fileNanos < jsonNanos);
+    }
+    
+    // What a JSON catalog costs: the whole text is parsed before any row exists.
+    private static ArrayList<ProductArray> firstPageFromJson(String text) throws Exception {
+        JSONArray products = new JSONObject(text).getJSONArray("products");
+        ArrayList<ProductArray> page = new ArrayList<ProductArray>();
+        
+        for (int i = 0; PAGE > i; i++) {
+            JSONObject product = products.getJSONObject(i);
+            page.add(new ProductArray(product.getLong("id"), 0, product.getString("title"), product.getString("adrress"),
+                product.getString("campanyName"), product.getString("campanyHour"), product.getLong("price")));
+        }
+        
+        return page;
+    }
+    
+    private static ArrayList<ProductArray> firstPageFromFile(ByteBuffer buffer) throws Exception {
+        CatalogFile file = new CatalogFile(buffer);
+        ArrayList<ProductArray> page = new ArrayList<ProductArray>();
+        
+        for (int i = 0; PAGE > i; i++) {
+            page.add(new ProductArray(file.getProductId(i), 0, file.getProductTitle(i), file.getProductAdrress(i),
+                file.getProductCampanyName(i), file.getProductCampanyHour(i), file.getProductPrice(i)));
+        }
+        
+        return page;
+    }
+    
+    // Mapped from a file like the asset, not a heap buffer.
+    private static ByteBuffer map(ByteBuffer content) throws Exception {
+        File file = File.createTempFile("catalog", ".bin");
+        file.deleteOnExit();
+        
+        FileOutputStream out = new FileOutputStream(file);
+        
+        try {
+            out.write(content.array());
+        }finally {
+            out.close();
+        }
+        
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        
+        try {
+            return in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, in.length());
+        }finally {
+            in.close();
+        }
+    }
+    
+}
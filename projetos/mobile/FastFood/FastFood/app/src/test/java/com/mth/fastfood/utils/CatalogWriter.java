@@ -0,0 +1,139 @@
+package com.mth.fastfood.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/*
+ * Builds catalogs in the layout written by the generateCatalog Gradle task,
+ * for tests that need other data than the bundled asset. Categories and
+ * the featured list refer to products by id, as catalog.json does.
+ */
+class CatalogWriter {
+    
+    private ArrayList<Object[]> mProducts = new ArrayList<Object[]>();
+    private ArrayList<Object[]> mCategories = new ArrayList<Object[]>();
+    private long mFeatured[] = new long[0];
+    
+    CatalogWriter product(long id, String image, String title, String adrress, String campanyName, String campanyHour, long price) {
+        mProducts.add(new Object[] { id, image, title, adrress, campanyName, campanyHour, price });
+        return this;
+    }
+    
+    CatalogWriter category(int id, String name, String icon, long... productIds) {
+        mCategories.add(new Object[] { id, name, icon, productIds });
+        return this;
+    }
+    
+    CatalogWriter featured(long... productIds) {
+        mFeatured = productIds;
+        return this;
+    }
+    
+    ByteBuffer build(int dataVersion) {
+        return build(0x46464354, 3, dataVersion);
+    }
+    
+    ByteBuffer build(int magic, int formatVersion, int dataVersion) {
+        try {
+            ByteArrayOutputStream strings = new ByteArrayOutputStream();
+            DataOutputStream stringData = new DataOutputStream(strings);
+            HashMap<String, Integer> offsets = new HashMap<String, Integer>();
+            HashMap<Long, Integer> productIndex = new HashMap<Long, Integer>();
+            
+            for (int i = 0; mProducts.size() > i; i++) {
+                productIndex.put((Long) mProducts.get(i)[0], i);
+            }
+            
+            ArrayList<Integer> links = new ArrayList<Integer>();
+            ArrayList<int[]> categories = new ArrayList<int[]>();
+            
+            for (int i = 0; mCategories.size() > i; i++) {
+                Object category[] = mCategories.get(i);
+                long ids[] = (long[]) category[3];
+                int first = links.size();
+                
+                for (int j = 0; ids.length > j; j++) {
+                    links.add(productIndex.get(ids[j]));
+                }
+                
+                int name = string(stringData, strings, offsets, (String) category[1]);
+                int icon = string(stringData, strings, offsets, (String) category[2]);
+                
+                categories.add(new int[] { (Integer) category[0], name, icon, first, ids.length });
+            }
+            
+            ArrayList<int[]> products = new ArrayList<int[]>();
+            
+            for (int i = 0; mProducts.size() > i; i++) {
+                Object product[] = mProducts.get(i);
+                int record[] = new int[7];
+                
+                record[0] = (int) (long) (Long) product[0];
+                
+                for (int field = 1; 6 > field; field++) {
+                    record[field] = string(stringData, strings, offsets, (String) product[field]);
+                }
+                
+                record[6] = (int) (long) (Long) product[6];
+                products.add(record);
+            }
+            
+            int stringsOffset = 4 * (8 + categories.size() * 5 + products.size() * 7 + links.size() + mFeatured.length);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            
+            int header[] = { magic, formatVersion, dataVersion, categories.size(), products.size(), links.size(), mFeatured.length, stringsOffset };
+            
+            for (int i = 0; header.length > i; i++) {
+                out.writeInt(header[i]);
+            }
+            
+            for (int i = 0; categories.size() > i; i++) {
+                writeInts(out, categories.get(i));
+            }
+            
+            for (int i = 0; products.size() > i; i++) {
+                writeInts(out, products.get(i));
+            }
+            
+            for (int i = 0; links.size() > i; i++) {
+                out.writeInt(links.get(i));
+            }
+            
+            for (int i = 0; mFeatured.length > i; i++) {
+                out.writeInt(productIndex.get(mFeatured[i]));
+            }
+            
+            out.write(strings.toByteArray());
+            return ByteBuffer.wrap(bytes.toByteArray());
+        }catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+    
+    private static int string(DataOutputStream data, ByteArrayOutputStream strings, HashMap<String, Integer> offsets, String value) throws IOException {
+        Integer offset = offsets.get(value);
+        
+        if (offset == null) {
+            byte bytes[] = value.getBytes(StandardCharsets.UTF_8);
+            offset = strings.size();
+            offsets.put(value, offset);
+            data.writeShort(bytes.length);
+            data.write(bytes);
+        }
+        
+        return offset;
+    }
+    
+    private static void writeInts(DataOutputStream out, int values[]) throws IOException {
+        for (int i = 0; values.length > i; i++) {
+            out.writeInt(values[i]);
+        }
+    }
+    
+}
@@ -0,0 +1,165 @@
+package com.mth.fastfood.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import androidx.test.core.app.ApplicationProvider;
+import com.mth.fastfood.R;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+@Config(sdk = 28)
+public class ImageLoaderTest {
+    
+    private static final int WIDTH = 160;
+    private static final int HEIGHT = 120;
+    
+    private Context mContext;
+    private ImageLoader mLoader;
+    private DiskThumbnailCache mDiskCache;
+    
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        mLoader = ImageLoader.getInstance(mContext);
+        mDiskCache = DiskThumbnailCache.getInstance(mContext);
+        
+        mLoader.getCache().clear();
+        mDiskCache.clear();
+    }
+    
+    @Test
+    public void sampleSizeIsOneWhenNothingIsRequested() {
+        assertEquals(1, ImageLoader.calculateInSampleSize(1000, 800, 0, 0));
+        assertEquals(1, ImageLoader.calculateInSampleSize(1000, 800, -1, 100));
+    }
+    
+    @Test
+    public void sampleSizeIsOneWhenTheImageIsSmallerThanTheView() {
+        assertEquals(1, ImageLoader.calculateInSampleSize(100, 80, 200, 160));
+        assertEquals(1, ImageLoader.calculateInSampleSize(200, 160, 200, 160));
+    }
+    
+    @Test
+    public void sampleSizeIsTheLargestPowerOfTwoCoveringTheView() {
+        assertEquals(2, ImageLoader.calculateInSampleSize(400, 320, 200, 160));
+        assertEquals(2, ImageLoader.calculateInSampleSize(799, 639, 200, 160));
+        assertEquals(4, ImageLoader.calculateInSampleSize(800, 640, 200, 160));
+        assertEquals(8, ImageLoader.calculateInSampleSize(4000, 3000, 300, 300));
+    }
+    
+    @Test
+    public void sampleSizeIsBoundByTheShorterSide() {
+        // A wide image must still cover the view height.
+        assertEquals(2, ImageLoader.calculateInSampleSize(4000, 500, 100, 200));
+        assertEquals(2, ImageLoader.calculateInSampleSize(500, 4000, 200, 100));
+    }
+    
+    @Test
+    public void obtainLooksInMemoryThenOnDiskThenDecodes() throws InterruptedException {
+        // The caches are shared by the process: count from here.
+        long decodes = mLoader.getDecodeCount();
+        int diskHits = mDiskCache.hitCount();
+        int diskMisses = mDiskCache.missCount();
+        
+        // Cold: both caches miss and the resource is decoded.
+        Bitmap decoded = mLoader.obtain(R.drawable.hamburguer_01, R.layout.content_category, WIDTH, HEIGHT);
+        assertNotNull(decoded);
+        assertEquals(decodes + 1, mLoader.getDecodeCount());
+        assertEquals(diskMisses + 1, mDiskCache.missCount());
+        awaitDiskWrite();
+        mLoader.getCache().release(decoded);
+        
+        // Warm: the memory cache answers, the disk is not read.
+        Bitmap cached = mLoader.obtain(R.drawable.hamburguer_01, R.layout.content_category, WIDTH, HEIGHT);
+        assertSame(decoded, cached);
+        assertEquals(diskHits, mDiskCache.hitCount());
+        assertEquals(decodes + 1, mLoader.getDecodeCount());
+        mLoader.getCache().release(cached);
+        
+        // Next launch: memory is empty, the thumbnail comes from disk.
+        mLoader.getCache().clear();
+        Bitmap stored = mLoader.obtain(R.drawable.hamburguer_01, R.layout.content_category, WIDTH, HEIGHT);
+        assertNotNull(stored);
+        assertEquals(diskHits + 1, mDiskCache.hitCount());
+        assertEquals(decodes + 1, mLoader.getDecodeCount());
+        assertTrue(stored.getWidth() >= WIDTH && stored.getHeight() >= HEIGHT);
+        mLoader.getCache().release(stored);
+    }
+    
+    /*
+     * The thumbnail is written back on the loader threads after obtain()
+     * returns; waits until it is on disk.
+     */
+    private void awaitDiskWrite() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        
+        while (mDiskCache.size() == 0 && deadline > System.currentTimeMillis()) {
+            Thread.sleep(10);
+        }
+        
+        assertTrue(mDiskCache.size() > 0);
+    }
+    
+    @Test
+    public void decodesReusePooledBitmaps() {
+        int images[] = { R.drawable.hamburguer_01, R.drawable.pizza_01, R.drawable.variados_01 };
+        
+        // The first round fills the pool with bitmaps of these sizes.
+        for (int round = 0; 2 > round; round++) {
+            long allocations = mLoader.getAllocationCount();
+            int hits = mLoader.getPool().hitCount();
+            
+            for (int i = 0; images.length > i; i++) {
+                mLoader.getPool().put(mLoader.decode(images[i], WIDTH, HEIGHT));
+            }
+            
+            if (round > 0) {
+                assertEquals(allocations, mLoader.getAllocationCount());
+                assertTrue(mLoader.getPool().hitCount() > hits);
+            }
+        }
+    }
+    
+    @Test
+    public void decodeIsSampledToTheViewSize() {
+        int images[] = { R.drawable.hamburguer_01, R.drawable.hamburguer_10, R.drawable.pizza_01, R.drawable.variados_01 };
+        long fullBytes = 0;
+        long sampledBytes = 0;
+        
+        for (int i = 0; images.length > i; i++) {
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inScaled = false;
+            options.inJustDecodeBounds = true;
+            BitmapFactory.decodeResource(mContext.getResources(), images[i], options);
+            
+            Bitmap bitmap = mLoader.decode(images[i], WIDTH, HEIGHT);
+            
+            // centerCrop: covers the view on both sides and fits it exactly on one.
+            assertTrue(bitmap.getWidth() >= WIDTH && bitmap.getHeight() >= HEIGHT);
+            assertTrue(bitmap.getWidth() == WIDTH || bitmap.getHeight() == HEIGHT);
+            
+            fullBytes += (long) options.outWidth * options.outHeight * 4;
+            sampledBytes += bitmap.getByteCount();
+            mLoader.getPool().put(bitmap);
+        }
+        
+        assertTrue(sampledBytes < fullBytes);
+        
+        System.out.println("ImageLoader: " + mLoader.getDecodeCount() + " decodes, "
+            + mLoader.getAverageDecodeTimeMicros() + "us and " + mLoader.getAverageDecodeBytes()
+            + " bytes per decode (" + (fullBytes / images.length) + " bytes at full size)");
+    }
+    
+}
@@ -0,0 +1,44 @@
+package com.mth.fastfood.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class MoneyTest {
+    
+    @Test
+    public void formatsCentsAsReais() {
+        assertEquals("R$ 0,00", Money.format(0));
+        assertEquals("R$ 0,05", Money.format(5));
+        assertEquals("R$ 0,50", Money.format(50));
+        assertEquals("R$ 25,90", Money.format(2590));
+        assertEquals("R$ 999,99", Money.format(99999));
+    }
+    
+    @Test
+    public void groupsThousands() {
+        assertEquals("R$ 1.000,00", Money.format(100000));
+        assertEquals("R$ 1.234,50", Money.format(123450));
+        assertEquals("R$ 1.000.000,01", Money.format(100000001));
+    }
+    
+    @Test
+    public void signsNegativeAmounts() {
+        assertEquals("-R$ 12,00", Money.format(-1200));
+        assertEquals("-R$ 0,01", Money.format(-1));
+    }
+    
+    @Test
+    public void addsUpWithoutRounding() {
+        // Ten lines of R$ 0,10: floating point reais would drift here.
+        long total = 0;
+        
+        for (int i = 0; 10 > i; i++) {
+            total += new CartLine(i + 1, 1, 10).getSubtotal();
+        }
+        
+        assertEquals("R$ 1,00", Money.format(total));
+        assertEquals("R$ 59,97", Money.format(new CartLine(1, 3, 1999).getSubtotal()));
+    }
+    
+}
@@ -0,0 +1,268 @@
+package com.mth.fastfood.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/*
+ * Per-keystroke cost of SearchIndex over 100k synthetic products: every
+ * prefix of a few queries is searched, as typing them would, and the same
+ * keystrokes go through a linear scan of the products' tokens. Only the
+ * ratio is checked, the figures go to the test output.
+ */
+public class SearchIndexBenchmarkTest {
+    
+    static final int PRODUCTS = 100000;
+    private static final int LIMIT = 50;
+    private static final int ROUNDS = 5;
+    
+    private static final int EXACT = 0;
+    private static final int FUZZY = 1;
+    private static final int SCAN = 2;
+    private static final int FUZZY_SCAN = 3;
+    
+    static final String WORDS[] = {
+        "Hambúrguer", "Cheddar", "Bacon", "Pizza", "Calabresa", "Refrigerante", "Garrafa", "Lata",
+        "Frango", "Batata", "Salada", "Duplo", "Especial", "Picanha", "Queijo", "Suco",
+        "Laranja", "Morango", "Chocolate", "Sorvete", "Açaí", "Pastel", "Coxinha", "Guaraná"
+    };
+    
+    private static final String QUERIES[] = { "hamburguer cheddar", "refrigerante lata", "pizza calabresa especial", "acai morango", "empresa 123" };
+    private static final String TYPOS[] = { "hamburgue chedar", "refrigerante carrafa", "piza calabreza", "chocolatte sorvette", "franfo batatta" };
+    
+    private static SearchIndex sIndex;
+    private static String sTokens[][];
+    private static long buildNanos;
+    
+    @BeforeClass
+    public static void buildIndex() {
+        long start = System.nanoTime();
+        sIndex = catalog();
+        buildNanos = System.nanoTime() - start;
+        
+        sTokens = new String[PRODUCTS][];
+        
+        for (int i = 0; PRODUCTS > i; i++) {
+            sTokens[i] = SearchIndex.tokenize(title(i) + " " + company(i));
+        }
+    }
+    
+    // Three catalog words and a company name per product, plus a rarer word.
+    static SearchIndex catalog() {
+        SearchIndex.Builder builder = new SearchIndex.Builder(PRODUCTS);
+        
+        for (int i = 0; PRODUCTS > i; i++) {
+            builder.add(i, i + 1, title(i));
+            builder.add(i, i + 1, company(i));
+        }
+        
+        return builder.build();
+    }
+    
+    private static String title(int i) {
+        return WORDS[i % WORDS.length] + " " + WORDS[(i / 7) % WORDS.length] + " "
+            + WORDS[(i / 49) % WORDS.length] + " lanche" + (i % 5000);
+    }
+    
+    private static String company(int i) {
+        return "Empresa " + (i % 500);
+    }
+    
+    @Test
+    public void keystrokesBeatALinearScan() {
+        long indexed = measure("exact", QUERIES, EXACT);
+        long scanned = measure("linear scan", QUERIES, SCAN);
+        
+        assertTrue(indexed < scanned);
+    }
+    
+    @Test
+    public void misspelledKeystrokesBeatALinearScan() {
+        long fuzzy = measure("fuzzy", TYPOS, FUZZY);
+        long scanned = measure("fuzzy linear scan", TYPOS, FUZZY_SCAN);
+        
+        assertTrue(fuzzy < scanned);
+        
+        // Fast because it finds the products, not because it gives up.
+        for (int q = 0; TYPOS.length > q; q++) {
+            assertTrue(TYPOS[q], sIndex.searchFuzzy(TYPOS[q], LIMIT).length > 0);
+        }
+    }
+    
+    @Test
+    public void linearScanFindsWhatTheIndexFinds() {
+        for (int q = 0; QUERIES.length > q; q++) {
+            assertArrayEquals(QUERIES[q], sIndex.search(QUERIES[q], LIMIT), scan(QUERIES[q], LIMIT));
+        }
+    }
+    
+    private static long[] search(int kind, String query) {
+        if (kind == EXACT) {
+            return sIndex.search(query, LIMIT);
+        }else if (kind == FUZZY) {
+            return sIndex.searchFuzzy(query, LIMIT);
+        }else if (kind == FUZZY_SCAN) {
+            return scanFuzzy(query, LIMIT);
+        }
+        
+        return scan(query, LIMIT);
+    }
+    
+    // The same match as search(), checking every product in catalog order.
+    private static long[] scan(String query, int limit) {
+        String words[] = SearchIndex.tokenize(query);
+        long ids[] = new long[limit];
+        int count = 0;
+        
+        if (words.length == 0) {
+            return new long[0];
+        }
+        
+        for (int doc = 0; PRODUCTS > doc && limit > count; doc++) {
+            boolean matches = true;
+            
+            for (int w = 0; words.length > w && matches; w++) {
+                matches = false;
+                
+                for (int t = 0; sTokens[doc].length > t && !matches; t++) {
+                    matches = w == words.length - 1 ? sTokens[doc][t].startsWith(words[w]) : sTokens[doc][t].equals(words[w]);
+                }
+            }
+            
+            if (matches) {
+                ids[count++] = doc + 1;
+            }
+        }
+        
+        return Arrays.copyOf(ids, count);
+    }
+    
+    /*
+     * Fewest edits over every product, best first. Each distinct token is
+     * compared once per word, so the scan only pays for the lookups.
+     */
+    private static long[] scanFuzzy(String query, int limit) {
+        String words[] = SearchIndex.tokenize(query);
+        ArrayList<HashMap<String, Integer>> distances = new ArrayList<HashMap<String, Integer>>();
+        long ids[] = new long[limit];
+        int found[] = new int[limit];
+        int count = 0;
+        
+        for (int w = 0; words.length > w; w++) {
+            distances.add(new HashMap<String, Integer>());
+        }
+        
+        for (int doc = 0; PRODUCTS > doc; doc++) {
+            int total = 0;
+            
+            for (int w = 0; words.length > w && total >= 0; w++) {
+                int best = -1;
+                
+                for (int t = 0; sTokens[doc].length > t; t++) {
+                    Integer distance = distances.get(w).get(sTokens[doc][t]);
+                    
+                    if (distance == null) {
+                        distance = distance(words[w], sTokens[doc][t], w == words.length - 1);
+                        distances.get(w).put(sTokens[doc][t], distance);
+                    }
+                    
+                    if (distance <= SearchIndex.maxDistance(words[w].length()) && (best < 0 || distance < best)) {
+                        best = distance;
+                    }
+                }
+                
+                total = best < 0 ? -1 : total + best;
+            }
+            
+            // Insertion into the best so far, ties stay in catalog order.
+            if (total < 0 || (count == limit && total >= found[count - 1])) {
+                continue;
+            }
+            
+            int at = Math.min(count, limit - 1);
+            
+            while (at > 0 && found[at - 1] > total) {
+                found[at] = found[at - 1];
+                ids[at] = ids[at - 1];
+                at--;
+            }
+            
+            found[at] = total;
+            ids[at] = doc + 1;
+            count = Math.min(count + 1, limit);
+        }
+        
+        return Arrays.copyOf(ids, count);
+    }
+    
+    // Levenshtein distance, to the closest prefix of token when prefix is set.
+    private static int distance(String word, String token, boolean prefix) {
+        int row[] = new int[token.length() + 1];
+        
+        for (int j = 0; row.length > j; j++) {
+            row[j] = j;
+        }
+        
+        for (int i = 1; word.length() >= i; i++) {
+            int diagonal = row[0];
+            row[0] = i;
+            
+            for (int j = 1; token.length() >= j; j++) {
+                int above = row[j];
+                int cost = word.charAt(i - 1) == token.charAt(j - 1) ? 0 : 1;
+                row[j] = Math.min(diagonal + cost, Math.min(above, row[j - 1]) + 1);
+                diagonal = above;
+            }
+        }
+        
+        int best = row[token.length()];
+        
+        for (int j = 0; prefix && token.length() > j; j++) {
+            best = Math.min(best, row[j]);
+        }
+        
+        return best;
+    }
+    
+    // Best average nanoseconds per keystroke over the rounds.
+    private static long measure(String name, String queries[], int kind) {
+        long best = Long.MAX_VALUE;
+        long worst = 0;
+        int keystrokes = 0;
+        
+        // The first rounds warm the JIT, the worst keystroke of the last one is reported.
+        for (int round = 0; ROUNDS > round; round++) {
+            long total = 0;
+            worst = 0;
+            keystrokes = 0;
+            
+            for (int q = 0; queries.length > q; q++) {
+                for (int end = 1; queries[q].length() >= end; end++) {
+                    String query = queries[q].substring(0, end);
+                    long at = System.nanoTime();
+                    
+                    search(kind, query);
+                    
+                    long nanos = System.nanoTime() - at;
+                    total += nanos;
+                    worst = Math.max(worst, nanos);
+                    keystrokes++;
+                }
+            }
+            
+            best = Math.min(best, total / keystrokes);
+        }
+        
+        System.out.println("SearchIndexBenchmark " + name + ": " + PRODUCTS + " products, " + sIndex.getTokenCount() + " tokens, built in "
+            + (buildNanos / 1000000) + "ms; " + keystrokes + " keystrokes, " + (best / 1000) + "us average, "
+            + (worst / 1000) + "us worst");
+        
+        return best;
+    }
+    
+}
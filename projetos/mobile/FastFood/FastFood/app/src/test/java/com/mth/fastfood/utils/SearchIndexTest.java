@@ -0,0 +1,127 @@
+package com.mth.fastfood.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SearchIndexTest {
+    
+    private static SearchIndex sample() {
+        SearchIndex.Builder builder = new SearchIndex.Builder(6);
+        
+        builder.add(0, 100, "Hambúrguer Cheddar");
+        builder.add(1, 101, "Hamburguinho da casa");
+        builder.add(2, 102, "Pizza de calabresa");
+        builder.add(3, 103, "X-Burguer");
+        builder.add(3, 103, "Hambúrguer 2");
+        builder.add(4, 104, "Burger cheese");
+        builder.add(5, 105, "Refrigerante garrafa");
+        
+        return builder.build();
+    }
+    
+    @Test
+    public void tokenizesWithoutCaseOrAccents() {
+        assertArrayEquals(new String[] { "hamburguer", "x", "tudo" }, SearchIndex.tokenize("Hambúrguer X-Tudo"));
+        assertArrayEquals(new String[] { "acai", "500ml" }, SearchIndex.tokenize("  AÇAÍ, 500ml!"));
+        assertEquals(0, SearchIndex.tokenize("").length);
+        assertEquals(0, SearchIndex.tokenize(null).length);
+    }
+    
+    @Test
+    public void matchesAccentedTokensByPrefix() {
+        SearchIndex index = sample();
+        
+        assertArrayEquals(new long[] { 100, 103 }, index.search("hamburgue", 10));
+        assertArrayEquals(new long[] { 100, 103 }, index.search("HAMBÚRGUER", 10));
+    }
+    
+    @Test
+    public void mergesEveryTokenOfThePrefixInCatalogOrder() {
+        // "ham" covers hamburguer and hamburguinho; document 3 holds it twice.
+        assertArrayEquals(new long[] { 100, 101, 103 }, sample().search("ham", 10));
+        assertArrayEquals(new long[] { 103, 104 }, sample().search("bur", 10));
+    }
+    
+    @Test
+    public void onlyTheLastWordIsAPrefix() {
+        SearchIndex index = sample();
+        
+        assertArrayEquals(new long[] { 104 }, index.search("burger ch", 10));
+        assertArrayEquals(new long[] { 103 }, index.search("x-bu", 10));
+        assertArrayEquals(new long[0], index.search("bu ch", 10));
+        assertArrayEquals(new long[0], index.search("hamb cheddar", 10));
+        assertArrayEquals(new long[] { 100 }, index.search("hamburguer ched", 10));
+    }
+    
+    @Test
+    public void keepsToTheLimit() {
+        SearchIndex index = sample();
+        
+        assertArrayEquals(new long[] { 100, 101 }, index.search("ham", 2));
+        assertArrayEquals(new long[0], index.search("ham", 0));
+        assertArrayEquals(new long[0], index.search(" - ", 10));
+        assertArrayEquals(new long[0], index.search("sushi", 10));
+    }
+    
+    @Test
+    public void toleratesMoreEditsInLongerWords() {
+        assertEquals(0, SearchIndex.maxDistance(3));
+        assertEquals(1, SearchIndex.maxDistance(4));
+        assertEquals(1, SearchIndex.maxDistance(6));
+        assertEquals(2, SearchIndex.maxDistance(7));
+        assertEquals(2, SearchIndex.maxDistance(20));
+    }
+    
+    @Test
+    public void findsMisspelledWords() {
+        SearchIndex index = sample();
+        
+        // One edit from "hamburguer", three from any start of "hamburguinho".
+        assertArrayEquals(new long[] { 100, 103 }, index.searchFuzzy("hanburguer", 10));
+        // The last word only has to be close to a start: "hamburgu" is two edits away.
+        assertArrayEquals(new long[] { 100, 101, 103 }, index.searchFuzzy("hamburgeur", 10));
+        assertArrayEquals(new long[] { 105 }, index.searchFuzzy("refrigerante carrafa", 10));
+        assertArrayEquals(new long[] { 105 }, index.searchFuzzy("refrijerante", 10));
+        assertArrayEquals(new long[] { 102 }, index.searchFuzzy("piza", 10));
+    }
+    
+    @Test
+    public void boundsTheEditDistance() {
+        SearchIndex index = sample();
+        
+        // Short words must be exact, or a prefix when last.
+        assertArrayEquals(new long[0], index.searchFuzzy("pza", 10));
+        assertArrayEquals(new long[0], index.searchFuzzy("bu ch", 10));
+        // Three edits where two are allowed.
+        assertArrayEquals(new long[0], index.searchFuzzy("hxmbxrgxer", 10));
+        assertArrayEquals(new long[0], index.searchFuzzy("sushi", 10));
+    }
+    
+    @Test
+    public void ranksFewerEditsFirst() {
+        SearchIndex.Builder builder = new SearchIndex.Builder(3);
+        
+        builder.add(0, 10, "Pizza calabresa");
+        builder.add(1, 11, "Pizza calabreza");
+        builder.add(2, 12, "Pizza calabresa especial");
+        SearchIndex index = builder.build();
+        
+        // The exact spelling wins over catalog order, ties keep catalog order.
+        assertArrayEquals(new long[] { 11, 10, 12 }, index.searchFuzzy("calabreza", 10));
+        assertArrayEquals(new long[] { 10, 12, 11 }, index.searchFuzzy("pizaa calabresa", 10));
+        assertArrayEquals(new long[] { 11, 10 }, index.searchFuzzy("calabreza", 2));
+    }
+    
+    @Test
+    public void countsDocumentsAndTokens() {
+        SearchIndex index = sample();
+        
+        assertEquals(6, index.getDocumentCount());
+        // hamburguer, cheddar, hamburguinho, da, casa, pizza, de, calabresa, x,
+        // burguer, 2, burger, cheese, refrigerante, garrafa
+        assertEquals(15, index.getTokenCount());
+    }
+    
+}
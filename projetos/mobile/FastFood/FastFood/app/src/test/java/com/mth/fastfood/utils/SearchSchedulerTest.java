@@ -0,0 +1,178 @@
+package com.mth.fastfood.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Handler;
+import android.os.Looper;
+import com.mth.fastfood.inter.OnProductsLoadListener;
+import com.mth.fastfood.inter.OnSearchListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/*
+ * Typing faster than the debounce delay, on Robolectric's paused main
+ * looper: time only moves when the test idles it. Queries never really
+ * run; the test answers them itself, in whatever order it wants.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SearchSchedulerTest {
+    
+    private static final long DEBOUNCE_MS = 150;
+    private static final long KEYSTROKE_MS = 40;
+    
+    private ArrayList<Query> mQueries = new ArrayList<Query>();
+    private ArrayList<String> mShown = new ArrayList<String>();
+    private SearchScheduler mScheduler;
+    
+    @Before
+    public void setUp() {
+        SearchScheduler.Searcher searcher = new SearchScheduler.Searcher() {
+            @Override
+            public Future<?> search(String query, int limit, OnProductsLoadListener listener) {
+                Query started = new Query(query, listener);
+                mQueries.add(started);
+                return started.mFuture;
+            }
+        };
+        
+        mScheduler = new SearchScheduler(searcher, new Handler(Looper.getMainLooper()), DEBOUNCE_MS, 20, new OnSearchListener() {
+            @Override
+            public void onResult(String query, List<ProductArray> products) {
+                mShown.add(products.isEmpty() ? query + ":" : query + ":" + products.get(0).getTitle());
+            }
+        });
+    }
+    
+    @Test
+    public void fastTypingRunsOneSearch() {
+        type("h", "ha", "ham", "hamb", "hambu");
+        
+        assertEquals(0, mQueries.size());
+        
+        idle(DEBOUNCE_MS);
+        
+        assertEquals(1, mQueries.size());
+        assertEquals("hambu", mQueries.get(0).mText);
+        
+        mQueries.get(0).answer();
+        
+        assertEquals(Collections.singletonList("hambu:hambu"), mShown);
+    }
+    
+    @Test
+    public void dropsResultsOfAnOlderQuery() {
+        type("pizza");
+        idle(DEBOUNCE_MS);
+        type("pizza c");
+        
+        Query stale = mQueries.get(0);
+        assertTrue(stale.mFuture.isCancelled());
+        
+        // Answered anyway, as a query already running when cancelled would be.
+        stale.answer();
+        assertTrue(mShown.isEmpty());
+        
+        idle(DEBOUNCE_MS);
+        
+        assertEquals(2, mQueries.size());
+        mQueries.get(1).answer();
+        
+        assertEquals(Collections.singletonList("pizza c:pizza c"), mShown);
+    }
+    
+    @Test
+    public void answersOutOfOrderShowOnlyTheLatest() {
+        type("coca");
+        idle(DEBOUNCE_MS);
+        type("coca cola");
+        idle(DEBOUNCE_MS);
+        
+        mQueries.get(1).answer();
+        mQueries.get(0).answer();
+        
+        assertEquals(Collections.singletonList("coca cola:coca cola"), mShown);
+    }
+    
+    @Test
+    public void clearingTheTextDropsTheRunningQuery() {
+        type("suco");
+        idle(DEBOUNCE_MS);
+        type("");
+        
+        assertEquals(Collections.singletonList(":"), mShown);
+        
+        mQueries.get(0).answer();
+        idle(DEBOUNCE_MS);
+        
+        assertEquals(1, mQueries.size());
+        assertEquals(Collections.singletonList(":"), mShown);
+    }
+    
+    @Test
+    public void trailingSpacesDontRestartTheQuery() {
+        type("batata");
+        idle(DEBOUNCE_MS);
+        type("batata ", " batata");
+        idle(DEBOUNCE_MS);
+        
+        assertEquals(1, mQueries.size());
+        assertFalse(mQueries.get(0).mFuture.isCancelled());
+    }
+    
+    @Test
+    public void cancelDropsThePendingQuery() {
+        type("lanche");
+        mScheduler.cancel();
+        idle(DEBOUNCE_MS);
+        
+        assertEquals(0, mQueries.size());
+    }
+    
+    // One keystroke every KEYSTROKE_MS, well inside the debounce delay.
+    private void type(String... texts) {
+        for (int i = 0; texts.length > i; i++) {
+            if (i > 0) {
+                idle(KEYSTROKE_MS);
+            }
+            
+            mScheduler.onInput(texts[i]);
+        }
+    }
+    
+    private static void idle(long millis) {
+        shadowOf(Looper.getMainLooper()).idleFor(millis, TimeUnit.MILLISECONDS);
+    }
+    
+    private static class Query {
+        
+        String mText;
+        OnProductsLoadListener mListener;
+        FutureTask<Void> mFuture = new FutureTask<Void>(new Runnable() {
+            @Override
+            public void run() {}
+        }, null);
+        
+        Query(String text, OnProductsLoadListener listener) {
+            this.mText = text;
+            this.mListener = listener;
+        }
+        
+        // A product titled after the query, delivered on the main thread.
+        void answer() {
+            mListener.onLoad(Collections.singletonList(new ProductArray(1, 0, mText, "", "", "", 0)));
+        }
+        
+    }
+    
+}